@@ -25,7 +25,12 @@ import java.util.Map;
 import java.util.TimeZone;
 import javax.net.ssl.HttpsURLConnection;
 import org.json.JSONException;
+import org.json.JSONKeyPool;
 import org.json.JSONObject;
+import org.json.JSONProjection;
+import org.json.JSONStringer;
+import org.json.JSONTape;
+import org.json.JSONTokener;
 
 public class RapidPush {
 
@@ -34,6 +39,20 @@ public class RapidPush {
 	 */
 	private static String API_SERVICE_URL = "rapidpush.net/api";
 
+	/**
+	 * Defines the parts of an API response which we read, for a single api key
+	 * response and for each entry of a multi api key response.
+	 */
+	private static final JSONProjection RESPONSE_FIELDS = new JSONProjection(new String[] {
+		"code", "desc", "data", "*.code", "*.desc", "*.data"
+	});
+
+	/**
+	 * Shares the short string values of API responses, like the "OK" of each
+	 * api key and the group names, which repeat from response to response.
+	 */
+	static final JSONKeyPool STRING_POOL = new JSONKeyPool(256);
+
 	/**
 	 * Holds the API-Key.
 	 */
@@ -352,13 +371,15 @@ public class RapidPush {
 			}
 
 			// Generate a json object from provided data parameters.
-			JSONObject data = new JSONObject();
+			JSONStringer data = JSONStringer.local();
+			data.object();
 			Iterator it = params.entrySet().iterator();
 			while (it.hasNext()) {
 				Map.Entry pairs = (Map.Entry) it.next();
-				data.put(pairs.getKey().toString(), pairs.getValue().toString());
+				data.key(pairs.getKey().toString()).value(pairs.getValue().toString());
 				it.remove();
 			}
+			data.endObject();
 
 			// Build our post param hashmap.
 			HashMap<String, String> postParams = new HashMap<>();
@@ -391,11 +412,13 @@ public class RapidPush {
 				response_string = do_non_ssl(urlParameters);
 			}
 
-			JSONObject jsonObject = new JSONObject(response_string);
-			try {
+			// Parse only the response fields, everything else is skipped.
+			JSONObject jsonObject = RESPONSE_FIELDS.parse(new JSONTokener(response_string).setStringPool(STRING_POOL));
+			if (is_single_response(jsonObject)) {
 				response = new RapidPushResponse(jsonObject.getInt("code"), jsonObject.getString("desc"), add_response_data(jsonObject));
 			}
-			catch (JSONException e) {
+			else {
+				// A multi api key response holds one response per api key.
 				Iterator it2 = jsonObject.keys();
 				while (it2.hasNext()) {
 					String apikey = (String) it2.next();
@@ -412,26 +435,48 @@ public class RapidPush {
 		return response;
 	}
 	
-	private String add_response_data(JSONObject jsonObject) {
-		try {
-			// Try to get the data as plain text.
-			return jsonObject.getString("data");
+	/**
+	 * Checks whether a response is a single api key response, which has a
+	 * string "desc" and a "code" that getInt accepts: a number, or a string
+	 * such as "200" that parses as an integer.
+	 *
+	 * @param jsonObject
+	 *   The parsed response.
+	 *
+	 * @return Returns true for a single api key response, false for a multi api key response.
+	 */
+	private static boolean is_single_response(JSONObject jsonObject) {
+		if (jsonObject.typeOf("desc") != JSONTape.STRING) {
+			return false;
 		}
-		catch (JSONException e) {
-			try {
-				// Try to get the data as an json array.
-				return jsonObject.getJSONArray("data").toString();
-			}
-			catch (JSONException e2) {
-				// Try to get the data as an json object.
+		switch (jsonObject.typeOf("code")) {
+			case JSONTape.NUMBER:
+				return true;
+			case JSONTape.STRING:
 				try {
-					return jsonObject.getJSONObject("data").toString();
+					Integer.parseInt(jsonObject.tryGetString("code"));
+					return true;
 				}
-				catch (JSONException e3) {
-					// Its not a string, not an array and finally no object, so add just an empty string.
-					return "";
+				catch (NumberFormatException e) {
+					return false;
 				}
-			}
+			default:
+				return false;
+		}
+	}
+
+	private String add_response_data(JSONObject jsonObject) {
+		switch (jsonObject.typeOf("data")) {
+			case JSONTape.STRING:
+				// The data is plain text.
+				return jsonObject.tryGetString("data");
+			case JSONTape.ARRAY:
+			case JSONTape.OBJECT:
+				// The data is a json array or object.
+				return jsonObject.opt("data").toString();
+			default:
+				// Its not a string, not an array and finally no object, so add just an empty string.
+				return "";
 		}
 	}
 
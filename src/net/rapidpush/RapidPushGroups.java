@@ -13,6 +13,7 @@ import java.util.Map.Entry;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 public class RapidPushGroups {
 	/**
@@ -87,7 +88,7 @@ public class RapidPushGroups {
 			
 			// Get the single entry.
 			try {
-				JSONArray json_groups = new JSONArray(response.getData());
+				JSONArray json_groups = new JSONArray(new JSONTokener(response.getData()).setStringPool(RapidPush.STRING_POOL));
 				groups = new ArrayList<>();
 
 				for (int i = 0; i < json_groups.length(); i++) {
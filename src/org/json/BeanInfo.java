@@ -0,0 +1,232 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A BeanInfo holds what JSONObject needs to know to turn objects of one
+ * class into JSON: the keys and getters found by the bean naming rules, the
+ * public fields looked up by name, and whether the class belongs to the
+ * Java platform. It is worked out once per class and kept in a
+ * <code>ClassValue</code>, so converting a bean costs a few getter calls
+ * after the first time, instead of a full reflective scan of its methods.
+ * <p>
+ * Getters are held as <code>MethodHandle</code>s adapted to
+ * <code>(Object)Object</code>. Methods that cannot be reached through the
+ * public lookup, such as public methods of a class that is not itself
+ * public, are left out, just as they failed when invoked reflectively.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class BeanInfo {
+
+    private static final ClassValue infos = new ClassValue() {
+        protected Object computeValue(Class type) {
+            return new BeanInfo(type);
+        }
+    };
+
+    private static final MethodType getterType =
+        MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * The value cached for a field name that cannot be read.
+     */
+    private static final Object missing = new Object();
+
+    /**
+     * The keys of the bean properties.
+     */
+    private final String[] keys;
+
+    /**
+     * The getters of the bean properties, parallel to the keys.
+     */
+    private final MethodHandle[] getters;
+
+    /**
+     * The readers of the public fields that have been asked for by name.
+     */
+    private final ConcurrentHashMap fields = new ConcurrentHashMap();
+
+    /**
+     * The class.
+     */
+    private final Class klass;
+
+    /**
+     * Whether the class comes from the java or javax packages or the
+     * bootstrap class loader. Such objects are wrapped as strings.
+     */
+    final boolean isSystem;
+
+
+    /**
+     * Get the BeanInfo for a class.
+     * @param klass A class.
+     * @return The BeanInfo.
+     */
+    static BeanInfo of(Class klass) {
+        return (BeanInfo)infos.get(klass);
+    }
+
+
+    private BeanInfo(Class klass) {
+        this.klass = klass;
+        Package objectPackage = klass.getPackage();
+        String objectPackageName = objectPackage != null
+            ? objectPackage.getName()
+            : "";
+        this.isSystem = objectPackageName.startsWith("java.") ||
+            objectPackageName.startsWith("javax.") ||
+            klass.getClassLoader() == null;
+
+// If klass is a System class then set includeSuperClass to false.
+
+        boolean includeSuperClass = klass.getClassLoader() != null;
+
+        Method[] methods = includeSuperClass
+                ? klass.getMethods()
+                : klass.getDeclaredMethods();
+        ArrayList keys = new ArrayList();
+        ArrayList getters = new ArrayList();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (int i = 0; i < methods.length; i += 1) {
+            Method method = methods[i];
+            String key = keyOf(method);
+            if (key != null) {
+                try {
+                    getters.add(adapt(lookup.unreflect(method),
+                            Modifier.isStatic(method.getModifiers())));
+                    keys.add(key);
+                } catch (Exception ignore) {
+                }
+            }
+        }
+        this.keys = (String[])keys.toArray(new String[keys.size()]);
+        this.getters = (MethodHandle[])getters.toArray(
+            new MethodHandle[getters.size()]);
+    }
+
+
+    /**
+     * Adapt a getter to the type <code>(Object)Object</code>. A static
+     * getter ignores its argument.
+     */
+    private static MethodHandle adapt(MethodHandle handle, boolean isStatic) {
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(getterType);
+    }
+
+
+    /**
+     * Work out the key for a bean getter. The key is formed by removing the
+     * <code>"get"</code> or <code>"is"</code> prefix. If the second remaining
+     * character is not upper case, then the first character is converted to
+     * lower case.
+     * @param method A method.
+     * @return The key, or null if the method is not a public getter.
+     */
+    private static String keyOf(Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) ||
+                method.getParameterTypes().length != 0) {
+            return null;
+        }
+        String name = method.getName();
+        String key = "";
+        if (name.startsWith("get")) {
+            if ("getClass".equals(name) ||
+                    "getDeclaringClass".equals(name)) {
+                key = "";
+            } else {
+                key = name.substring(3);
+            }
+        } else if (name.startsWith("is")) {
+            key = name.substring(2);
+        }
+        if (key.length() == 0 || !Character.isUpperCase(key.charAt(0))) {
+            return null;
+        }
+        if (key.length() == 1) {
+            key = key.toLowerCase();
+        } else if (!Character.isUpperCase(key.charAt(1))) {
+            key = key.substring(0, 1).toLowerCase() + key.substring(1);
+        }
+        return key;
+    }
+
+
+    /**
+     * Put the wrapped values of all of the non-null bean properties of an
+     * object into a map. A getter that throws is skipped.
+     * @param bean An object of this class.
+     * @param map The map to fill.
+     */
+    void populate(Object bean, Map map) {
+        for (int i = 0; i < this.getters.length; i += 1) {
+            try {
+                Object result = this.getters[i].invoke(bean);
+                if (result != null) {
+                    map.put(this.keys[i], JSONObject.wrap(result));
+                }
+            } catch (Throwable ignore) {
+            }
+        }
+    }
+
+
+    /**
+     * Get a reader for a public field.
+     * @param name A field name.
+     * @return A method handle of type <code>(Object)Object</code>, or null
+     *  if there is no such public field.
+     */
+    MethodHandle field(String name) {
+        Object handle = this.fields.get(name);
+        if (handle == null) {
+            try {
+                Field field = this.klass.getField(name);
+                handle = adapt(MethodHandles.publicLookup()
+                    .unreflectGetter(field),
+                    Modifier.isStatic(field.getModifiers()));
+            } catch (Exception e) {
+                handle = missing;
+            }
+            this.fields.put(name, handle);
+        }
+        return handle == missing ? null : (MethodHandle)handle;
+    }
+}
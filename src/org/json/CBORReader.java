@@ -0,0 +1,518 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A CBORReader decodes CBOR, the Concise Binary Object Representation of
+ * RFC 8949, into JSONObjects, JSONArrays and their values. It reads what
+ * CBORWriter writes, and most CBOR written by other encoders.
+ * <p>
+ * Maps become JSONObjects. A key that is not a text string is converted to
+ * one with <code>toString</code>, and duplicate keys are an error. Arrays
+ * become JSONArrays. Both may have definite or indefinite length. Integers
+ * become Integer, Long or BigInteger, whichever is smallest. Half, single
+ * and double precision floats become Double. Bignums (tags 2 and 3) become
+ * BigInteger and decimal fractions (tag 4) become BigDecimal; other tags
+ * are ignored and their content is returned. <code>false</code>,
+ * <code>true</code>, <code>null</code> and <code>undefined</code> become
+ * Boolean.FALSE, Boolean.TRUE and JSONObject.NULL. Byte strings become
+ * byte arrays.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class CBORReader {
+
+    /**
+     * The size of the buffer used for reading a stream.
+     */
+    private static final int bufferSize = 8192;
+
+    /**
+     * Returned by item for the break code that ends an item of indefinite
+     * length.
+     */
+    private static final Object BREAK = new Object();
+
+    /**
+     * The bytes being read.
+     */
+    private byte[] buf;
+
+    /**
+     * The index of the next byte in buf.
+     */
+    private int pos;
+
+    /**
+     * The index after the last byte in buf.
+     */
+    private int limit;
+
+    /**
+     * The stream that refills buf, or null if buf holds all of the input.
+     */
+    private final InputStream in;
+
+    /**
+     * The buffer that is being read, or null. Its position is kept up to
+     * date after each value.
+     */
+    private final ByteBuffer source;
+
+    /**
+     * The offset of the source's content in buf.
+     */
+    private final int offset;
+
+
+    /**
+     * Make a CBORReader from a stream.
+     * @param in The stream. It is read in blocks, so it should not be read
+     *  by anyone else.
+     */
+    public CBORReader(InputStream in) {
+        this.buf = new byte[bufferSize];
+        this.in = in;
+        this.source = null;
+        this.offset = 0;
+    }
+
+
+    /**
+     * Make a CBORReader from the remaining bytes of a ByteBuffer. The
+     * buffer's position moves past each value as it is read.
+     * @param buffer The buffer.
+     */
+    public CBORReader(ByteBuffer buffer) {
+        this.in = null;
+        this.source = buffer;
+        if (buffer.hasArray()) {
+            this.buf = buffer.array();
+            this.offset = buffer.arrayOffset();
+        } else {
+            this.buf = new byte[buffer.remaining()];
+            buffer.duplicate().get(this.buf);
+            this.offset = -buffer.position();
+        }
+        this.pos = this.offset + buffer.position();
+        this.limit = this.offset + buffer.limit();
+    }
+
+
+    /**
+     * Make a CBORReader from a byte array.
+     * @param bytes The bytes.
+     */
+    public CBORReader(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+
+    /**
+     * Decode a byte array that holds exactly one CBOR value.
+     * @param bytes The bytes.
+     * @return A JSONObject, JSONArray, String, Number, Boolean,
+     *  JSONObject.NULL or byte array.
+     * @throws JSONException If the bytes are not a single valid value.
+     */
+    public static Object read(byte[] bytes) throws JSONException {
+        CBORReader reader = new CBORReader(bytes);
+        Object value = reader.nextValue();
+        if (reader.more()) {
+            throw new JSONException("Unexpected data after CBOR value.");
+        }
+        return value;
+    }
+
+
+    /**
+     * Determine if there is another value to read.
+     * @return true if there are more bytes.
+     * @throws JSONException If the stream fails.
+     */
+    public boolean more() throws JSONException {
+        return this.pos < this.limit || this.fill();
+    }
+
+
+    /**
+     * Read the next value.
+     * @return A JSONObject, JSONArray, String, Number, Boolean,
+     *  JSONObject.NULL or byte array.
+     * @throws JSONException If the input ends early or is not valid CBOR, or
+     *  if the stream fails.
+     */
+    public Object nextValue() throws JSONException {
+        Object value = this.item();
+        if (value == BREAK) {
+            throw new JSONException("Misplaced CBOR break.");
+        }
+        if (this.source != null) {
+            this.source.position(this.pos - this.offset);
+        }
+        return value;
+    }
+
+
+    /**
+     * Read more of the stream into the buffer, keeping the bytes not yet
+     * read.
+     * @return false if there is nothing more to read.
+     */
+    private boolean fill() throws JSONException {
+        if (this.in == null) {
+            return false;
+        }
+        int n = this.limit - this.pos;
+        System.arraycopy(this.buf, this.pos, this.buf, 0, n);
+        this.pos = 0;
+        this.limit = n;
+        try {
+            int count = this.in.read(this.buf, n, this.buf.length - n);
+            if (count > 0) {
+                this.limit += count;
+                return true;
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return false;
+    }
+
+
+    /**
+     * Make sure that the next n bytes are in the buffer.
+     */
+    private void need(int n) throws JSONException {
+        if (this.limit - this.pos >= n) {
+            return;
+        }
+        if (n > this.buf.length && this.in != null) {
+            byte[] b = new byte[n];
+            System.arraycopy(this.buf, this.pos, b, 0, this.limit - this.pos);
+            this.limit -= this.pos;
+            this.pos = 0;
+            this.buf = b;
+        }
+        while (this.limit - this.pos < n) {
+            if (!this.fill()) {
+                throw new JSONException("Unexpected end of CBOR data.");
+            }
+        }
+    }
+
+
+    /**
+     * Read n bytes, most significant first.
+     */
+    private long bigEndian(int n) throws JSONException {
+        this.need(n);
+        long v = 0;
+        for (int i = 0; i < n; i += 1) {
+            v = (v << 8) | (this.buf[this.pos++] & 0xff);
+        }
+        return v;
+    }
+
+
+    /**
+     * Read the argument that follows an initial byte.
+     * @param info The low 5 bits of the initial byte.
+     * @return The argument, as an unsigned long, or -1 for indefinite
+     *  length.
+     */
+    private long argument(int info) throws JSONException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+        case 24:
+            return this.bigEndian(1);
+        case 25:
+            return this.bigEndian(2);
+        case 26:
+            return this.bigEndian(4);
+        case 27:
+            return this.bigEndian(8);
+        case 31:
+            return -1;
+        default:
+            throw new JSONException("Invalid CBOR argument " + info + ".");
+        }
+    }
+
+
+    /**
+     * Read a length, which must fit in an int.
+     */
+    private int length(long n) throws JSONException {
+        if (n < 0 || n > Integer.MAX_VALUE) {
+            throw new JSONException("CBOR length too large.");
+        }
+        return (int)n;
+    }
+
+
+    /**
+     * Make an Integer or a Long.
+     */
+    private static Object number(long v) {
+        if (v == (int)v) {
+            return Integer.valueOf((int)v);
+        }
+        return Long.valueOf(v);
+    }
+
+
+    /**
+     * Read a byte string or text string, joining the chunks of one of
+     * indefinite length.
+     */
+    private byte[] bytes(int major, int info) throws JSONException {
+        long n = this.argument(info);
+        if (n >= 0) {
+            int length = this.length(n);
+            this.need(length);
+            byte[] b = new byte[length];
+            System.arraycopy(this.buf, this.pos, b, 0, length);
+            this.pos += length;
+            return b;
+        }
+        byte[] b = new byte[0];
+        for (;;) {
+            this.need(1);
+            int ib = this.buf[this.pos++] & 0xff;
+            if (ib == 0xff) {
+                return b;
+            }
+            if (ib >>> 5 != major || (ib & 31) == 31) {
+                throw new JSONException("Invalid CBOR string chunk.");
+            }
+            byte[] chunk = this.bytes(major, ib & 31);
+            byte[] joined = new byte[b.length + chunk.length];
+            System.arraycopy(b, 0, joined, 0, b.length);
+            System.arraycopy(chunk, 0, joined, b.length, chunk.length);
+            b = joined;
+        }
+    }
+
+
+    /**
+     * Read a text string.
+     */
+    private String string(int info) throws JSONException {
+        if (info == 31) {
+            return new String(this.bytes(3, info), StandardCharsets.UTF_8);
+        }
+        int length = this.length(this.argument(info));
+        this.need(length);
+        String s = new String(this.buf, this.pos, length,
+            StandardCharsets.UTF_8);
+        this.pos += length;
+        return s;
+    }
+
+
+    /**
+     * Decode a half precision float.
+     */
+    private static double half(int h) {
+        int exponent = (h >>> 10) & 0x1f;
+        int mantissa = h & 0x3ff;
+        double d;
+        if (exponent == 0) {
+            d = Math.scalb((double)mantissa, -24);
+        } else if (exponent == 31) {
+            d = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            d = Math.scalb((double)(mantissa + 1024), exponent - 25);
+        }
+        return (h & 0x8000) != 0 ? -d : d;
+    }
+
+
+    /**
+     * Read one data item.
+     * @return The value, or BREAK.
+     */
+    private Object item() throws JSONException {
+        this.need(1);
+        int ib = this.buf[this.pos++] & 0xff;
+        int info = ib & 31;
+        long n;
+        switch (ib >>> 5) {
+        case 0:
+            n = this.argument(info);
+            if (info == 31) {
+                break;
+            }
+            if (n < 0) {
+                return new BigInteger(Long.toUnsignedString(n));
+            }
+            return number(n);
+        case 1:
+            n = this.argument(info);
+            if (info == 31) {
+                break;
+            }
+            if (n < 0) {
+                return new BigInteger(Long.toUnsignedString(n)).not();
+            }
+            return number(~n);
+        case 2:
+            return this.bytes(2, info);
+        case 3:
+            return this.string(info);
+        case 4:
+            return this.array(this.argument(info));
+        case 5:
+            return this.object(this.argument(info));
+        case 6:
+            return this.tagged(this.argument(info));
+        default:
+            switch (info) {
+            case 20:
+                return Boolean.FALSE;
+            case 21:
+                return Boolean.TRUE;
+            case 22:
+            case 23:
+                return JSONObject.NULL;
+            case 25:
+                return this.finite(half((int)this.bigEndian(2)));
+            case 26:
+                return this.finite(
+                    Float.intBitsToFloat((int)this.bigEndian(4)));
+            case 27:
+                return this.finite(
+                    Double.longBitsToDouble(this.bigEndian(8)));
+            case 31:
+                return BREAK;
+            }
+        }
+        throw new JSONException("Unsupported CBOR item 0x" +
+            Integer.toHexString(ib) + ".");
+    }
+
+
+    private Object finite(double d) throws JSONException {
+        if (Double.isInfinite(d) || Double.isNaN(d)) {
+            throw new JSONException("JSON does not allow non-finite numbers.");
+        }
+        return Double.valueOf(d);
+    }
+
+
+    /**
+     * Read a data item that must not be a break.
+     */
+    private Object value() throws JSONException {
+        Object value = this.item();
+        if (value == BREAK) {
+            throw new JSONException("Misplaced CBOR break.");
+        }
+        return value;
+    }
+
+
+    /**
+     * Read the elements of an array.
+     * @param n The number of elements, or -1 to read until a break.
+     */
+    private JSONArray array(long n) throws JSONException {
+        JSONArray ja = new JSONArray();
+        if (n < 0) {
+            for (;;) {
+                Object value = this.item();
+                if (value == BREAK) {
+                    return ja;
+                }
+                ja.put(value);
+            }
+        }
+        for (long i = 0; i < n; i += 1) {
+            ja.put(this.value());
+        }
+        return ja;
+    }
+
+
+    /**
+     * Read the pairs of a map.
+     * @param n The number of pairs, or -1 to read until a break.
+     */
+    private JSONObject object(long n) throws JSONException {
+        JSONObject jo = new JSONObject();
+        for (long i = 0; n < 0 || i < n; i += 1) {
+            Object key = this.item();
+            if (key == BREAK && n < 0) {
+                return jo;
+            }
+            if (key == BREAK || key instanceof byte[]) {
+                throw new JSONException("Invalid CBOR map key.");
+            }
+            jo.putOnce(key.toString(), this.value());
+        }
+        return jo;
+    }
+
+
+    /**
+     * Read the content of a tag.
+     */
+    private Object tagged(long tag) throws JSONException {
+        Object value = this.value();
+        if ((tag == 2 || tag == 3) && value instanceof byte[]) {
+            BigInteger v = new BigInteger(1, (byte[])value);
+            return tag == 2 ? v : v.not();
+        }
+        if (tag == 4 && value instanceof JSONArray &&
+                ((JSONArray)value).length() == 2) {
+            JSONArray ja = (JSONArray)value;
+            Object e = ja.get(0);
+            Object m = ja.get(1);
+            if ((e instanceof Integer || e instanceof Long) &&
+                    (m instanceof Integer || m instanceof Long ||
+                    m instanceof BigInteger)) {
+                long exponent = ((Number)e).longValue();
+                if (exponent == (int)exponent &&
+                        exponent != Integer.MIN_VALUE) {
+                    BigInteger mantissa = m instanceof BigInteger ?
+                        (BigInteger)m : BigInteger.valueOf(((Number)m).longValue());
+                    return new BigDecimal(mantissa, -(int)exponent);
+                }
+            }
+            throw new JSONException("Invalid CBOR decimal fraction.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,492 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A CBORWriter encodes JSONObjects, JSONArrays and their values as CBOR, the
+ * Concise Binary Object Representation of RFC 8949. CBOR holds the same data
+ * as JSON text in fewer bytes, and is faster to read because numbers are
+ * binary and strings carry their lengths.
+ * <p>
+ * Objects become maps with text string keys, and arrays become arrays, both
+ * with their lengths up front. Integers take the fewest bytes that hold
+ * them. A Double is written in 4 bytes when a float holds it exactly, and in
+ * 8 otherwise. A BigInteger too large for 8 bytes is written as a bignum
+ * (tags 2 and 3), and a BigDecimal as a decimal fraction (tag 4). As in JSON
+ * text, numbers must be finite.
+ * <p>
+ * A large object or array can also be written piece by piece, without
+ * knowing its length first, between <code>startObject</code> or
+ * <code>startArray</code> and <code>end</code>:
+ * <pre>
+ * CBORWriter w = new CBORWriter(out);
+ * w.startArray();
+ * while (...) {
+ *     w.value(record);
+ * }
+ * w.end();
+ * w.flush();
+ * </pre>
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class CBORWriter {
+
+    /**
+     * The size of the buffer.
+     */
+    private static final int bufferSize = 8192;
+
+    /**
+     * The buffer that receives the bytes.
+     */
+    private byte[] buf;
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int count;
+
+    /**
+     * The number of objects and arrays started and not yet ended.
+     */
+    private int depth;
+
+    /**
+     * The stream that the buffer is flushed to when it fills, or null if the
+     * buffer should grow instead.
+     */
+    private final OutputStream out;
+
+
+    /**
+     * Make a CBORWriter that collects its output in a byte array.
+     */
+    public CBORWriter() {
+        this.buf = new byte[bufferSize];
+        this.out = null;
+    }
+
+
+    /**
+     * Make a CBORWriter that writes through to a stream. Call
+     * <code>flush</code> when done.
+     * @param out The stream.
+     */
+    public CBORWriter(OutputStream out) {
+        this.buf = new byte[bufferSize];
+        this.out = out;
+    }
+
+
+    /**
+     * Encode a value as CBOR.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return The bytes.
+     * @throws JSONException If the value is or contains an invalid number.
+     */
+    public static byte[] toByteArray(Object value) throws JSONException {
+        return new CBORWriter().value(value).toByteArray();
+    }
+
+
+    /**
+     * Write a value as CBOR to a stream.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @param out The stream. It is not flushed or closed.
+     * @throws JSONException If the value is or contains an invalid number,
+     *  or if the stream fails.
+     */
+    public static void write(Object value, OutputStream out)
+            throws JSONException {
+        new CBORWriter(out).value(value).flush();
+    }
+
+
+    /**
+     * Get the number of bytes written and not yet flushed.
+     * @return The byte count.
+     */
+    public int size() {
+        return this.count;
+    }
+
+
+    /**
+     * Discard the bytes written so far, so that the writer can be reused.
+     */
+    public void reset() {
+        this.count = 0;
+        this.depth = 0;
+    }
+
+
+    /**
+     * Get a copy of the bytes written so far.
+     * @return A byte array.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[this.count];
+        System.arraycopy(this.buf, 0, bytes, 0, this.count);
+        return bytes;
+    }
+
+
+    /**
+     * Write the buffered bytes to the stream, if there is one.
+     * @throws JSONException If the stream fails.
+     */
+    public void flush() throws JSONException {
+        if (this.out != null) {
+            try {
+                this.out.write(this.buf, 0, this.count);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            this.count = 0;
+        }
+    }
+
+
+    /**
+     * Make room for n more bytes, flushing or growing the buffer.
+     */
+    private void ensure(int n) throws JSONException {
+        if (this.count + n <= this.buf.length) {
+            return;
+        }
+        if (this.out != null) {
+            this.flush();
+            if (n <= this.buf.length) {
+                return;
+            }
+        }
+        int length = Math.max(this.buf.length << 1, this.count + n);
+        byte[] b = new byte[length];
+        System.arraycopy(this.buf, 0, b, 0, this.count);
+        this.buf = b;
+    }
+
+
+    private void write(int b) throws JSONException {
+        if (this.count == this.buf.length) {
+            this.ensure(1);
+        }
+        this.buf[this.count++] = (byte)b;
+    }
+
+
+    /**
+     * Write the last n bytes of a long, most significant first.
+     */
+    private void bigEndian(long v, int n) {
+        for (int shift = (n - 1) * 8; shift >= 0; shift -= 8) {
+            this.buf[this.count++] = (byte)(v >>> shift);
+        }
+    }
+
+
+    /**
+     * Write the head of a data item: its major type and its argument, in
+     * the fewest bytes.
+     * @param major The major type, 0 to 7.
+     * @param n The argument, as an unsigned long.
+     */
+    private void head(int major, long n) throws JSONException {
+        int m = major << 5;
+        this.ensure(9);
+        if (n >= 0 && n < 24) {
+            this.buf[this.count++] = (byte)(m | (int)n);
+        } else if (n >= 0 && n < 0x100) {
+            this.buf[this.count++] = (byte)(m | 24);
+            this.bigEndian(n, 1);
+        } else if (n >= 0 && n < 0x10000) {
+            this.buf[this.count++] = (byte)(m | 25);
+            this.bigEndian(n, 2);
+        } else if (n >= 0 && n < 0x100000000L) {
+            this.buf[this.count++] = (byte)(m | 26);
+            this.bigEndian(n, 4);
+        } else {
+            this.buf[this.count++] = (byte)(m | 27);
+            this.bigEndian(n, 8);
+        }
+    }
+
+
+    /**
+     * Begin an object of unknown length. Write its keys and values in turn,
+     * then call <code>end</code>.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public CBORWriter startObject() throws JSONException {
+        this.write(0xbf);
+        this.depth += 1;
+        return this;
+    }
+
+
+    /**
+     * Begin an array of unknown length. Write its values, then call
+     * <code>end</code>.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public CBORWriter startArray() throws JSONException {
+        this.write(0x9f);
+        this.depth += 1;
+        return this;
+    }
+
+
+    /**
+     * End the object or array begun last.
+     * @return this.
+     * @throws JSONException If no object or array was begun, or if the
+     *  stream fails.
+     */
+    public CBORWriter end() throws JSONException {
+        if (this.depth == 0) {
+            throw new JSONException("Misplaced end.");
+        }
+        this.write(0xff);
+        this.depth -= 1;
+        return this;
+    }
+
+
+    /**
+     * Write a key of an object begun with <code>startObject</code>.
+     * @param key The key.
+     * @return this.
+     * @throws JSONException If the key is null, or if the stream fails.
+     */
+    public CBORWriter key(String key) throws JSONException {
+        if (key == null) {
+            throw new JSONException("Null key.");
+        }
+        return this.value(key);
+    }
+
+
+    /**
+     * Write a boolean.
+     * @param b A boolean.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public CBORWriter value(boolean b) throws JSONException {
+        this.write(b ? 0xf5 : 0xf4);
+        return this;
+    }
+
+
+    /**
+     * Write an integer.
+     * @param v A long.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public CBORWriter value(long v) throws JSONException {
+        if (v >= 0) {
+            this.head(0, v);
+        } else {
+            this.head(1, ~v);
+        }
+        return this;
+    }
+
+
+    /**
+     * Write a double, in 4 bytes if a float holds it exactly.
+     * @param d A double.
+     * @return this.
+     * @throws JSONException If the number is not finite, or if the stream
+     *  fails.
+     */
+    public CBORWriter value(double d) throws JSONException {
+        if (Double.isInfinite(d) || Double.isNaN(d)) {
+            throw new JSONException("JSON does not allow non-finite numbers.");
+        }
+        this.ensure(9);
+        float f = (float)d;
+        if (f == d) {
+            this.buf[this.count++] = (byte)0xfa;
+            this.bigEndian(Float.floatToIntBits(f), 4);
+        } else {
+            this.buf[this.count++] = (byte)0xfb;
+            this.bigEndian(Double.doubleToLongBits(d), 8);
+        }
+        return this;
+    }
+
+
+    /**
+     * Write a string as a UTF-8 text string.
+     * @param s A string.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public CBORWriter value(String s) throws JSONException {
+        int length = JSONByteWriter.utf8Length(s);
+        this.head(3, length);
+        this.ensure(length);
+        if (length == s.length()) {
+            for (int i = 0; i < length; i += 1) {
+                this.buf[this.count + i] = (byte)s.charAt(i);
+            }
+            this.count += length;
+        } else {
+            this.count = JSONByteWriter.encodeUTF8(s, this.buf, this.count);
+        }
+        return this;
+    }
+
+
+    /**
+     * Write a BigInteger, as an integer if it fits in 8 bytes and as a
+     * bignum otherwise.
+     */
+    private void bigInteger(BigInteger v) throws JSONException {
+        boolean negative = v.signum() < 0;
+        BigInteger n = negative ? v.not() : v;
+        if (n.bitLength() <= 64) {
+            this.head(negative ? 1 : 0, n.longValue());
+            return;
+        }
+        byte[] bytes = n.toByteArray();
+        int skip = bytes[0] == 0 ? 1 : 0;
+        this.head(6, negative ? 3 : 2);
+        this.head(2, bytes.length - skip);
+        this.ensure(bytes.length);
+        System.arraycopy(bytes, skip, this.buf, this.count,
+            bytes.length - skip);
+        this.count += bytes.length - skip;
+    }
+
+
+    /**
+     * Write a value.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return this.
+     * @throws JSONException If the value is or contains an invalid number,
+     *  or if the stream fails.
+     */
+    public CBORWriter value(Object value) throws JSONException {
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        if (value == null || value.equals(null)) {
+            this.write(0xf6);
+        } else if (value instanceof String) {
+            this.value((String)value);
+        } else if (value instanceof JSONObject) {
+            this.object((JSONObject)value);
+        } else if (value instanceof JSONArray) {
+            this.array((JSONArray)value);
+        } else if (value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte) {
+            this.value(((Number)value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            this.value(((Number)value).doubleValue());
+        } else if (value instanceof BigInteger) {
+            this.bigInteger((BigInteger)value);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal d = (BigDecimal)value;
+            this.head(6, 4);
+            this.head(4, 2);
+            this.value(-(long)d.scale());
+            this.bigInteger(d.unscaledValue());
+        } else if (value instanceof Number) {
+            this.value(((Number)value).doubleValue());
+        } else if (value instanceof Boolean) {
+            this.value(((Boolean)value).booleanValue());
+        } else if (value instanceof Map) {
+            this.object(new JSONObject((Map)value));
+        } else if (value instanceof Collection) {
+            this.array(new JSONArray((Collection)value));
+        } else if (value.getClass().isArray()) {
+            this.array(new JSONArray(value));
+        } else if (value instanceof JSONString) {
+            Object o;
+            try {
+                o = ((JSONString)value).toJSONString();
+            } catch (Exception e) {
+                throw new JSONException(e);
+            }
+            if (o != null) {
+                this.value(new JSONTokener(o.toString()).nextValue());
+            } else {
+                this.value(value.toString());
+            }
+        } else {
+            this.value(value.toString());
+        }
+        return this;
+    }
+
+
+    private void object(JSONObject jo) throws JSONException {
+        this.head(5, jo.length());
+        Iterator keys = jo.keys();
+        while (keys.hasNext()) {
+            String key = keys.next().toString();
+            this.value(key);
+            this.value(jo.peek(key));
+        }
+    }
+
+
+    private void array(JSONArray ja) throws JSONException {
+        ValueList list = ja.list();
+        int length = list.size();
+        int kind = list.kind();
+        this.head(4, length);
+        for (int i = 0; i < length; i += 1) {
+            switch (kind) {
+            case ValueList.ints:
+            case ValueList.longs:
+                this.value(list.longValue(i));
+                break;
+            case ValueList.doubles:
+                this.value(list.doubleValue(i));
+                break;
+            default:
+                this.value(list.get(i));
+            }
+        }
+    }
+}
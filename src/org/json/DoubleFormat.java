@@ -0,0 +1,300 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.math.BigInteger;
+
+/**
+ * A DoubleFormat writes a double with the fewest decimal digits that read
+ * back as the same double, using Raffaello Giulietti's Schubfach algorithm.
+ * The digits are written straight into a byte array, so no intermediate
+ * Strings are made.
+ * <p>
+ * Two layouts are supported. The Java layout is the one that
+ * <code>JSONObject.doubleToString</code> has always produced: the text of
+ * <code>Double.toString</code> with the trailing zeros of a plain decimal
+ * shaved off, as in <code>100</code>, <code>0.001</code> and
+ * <code>1.0E-5</code>. The ECMAScript layout is the one that canonical
+ * output uses, as in <code>1e-5</code> and <code>1e+21</code>. Only the
+ * choice of digits differs from <code>Double.toString</code>, which before
+ * Java 19 sometimes gives more digits than are needed.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class DoubleFormat {
+
+    /**
+     * The most bytes that a double can take in either layout.
+     */
+    static final int MAX_LENGTH = 32;
+
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << 52;
+    private static final long C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    /**
+     * The powers of ten that a long holds.
+     */
+    private static final long[] pow10 = new long[19];
+
+    /**
+     * For each k from K_MIN to K_MAX, the 126 bit g = floor(beta) + 1, where
+     * 10 to the -k is beta times a power of two and 2^125 &lt;= beta &lt;
+     * 2^126. Each g is held as its high 63 bits followed by its low 63
+     * bits.
+     */
+    private static final long[] g = new long[(K_MAX - K_MIN + 1) << 1];
+
+    static {
+        pow10[0] = 1;
+        for (int i = 1; i < pow10.length; i += 1) {
+            pow10[i] = pow10[i - 1] * 10;
+        }
+        BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k += 1) {
+            BigInteger p = BigInteger.TEN.pow(Math.abs(k));
+            BigInteger beta;
+            if (k <= 0) {
+                int r = p.bitLength() - 126;
+                beta = r >= 0 ? p.shiftRight(r) : p.shiftLeft(-r);
+            } else {
+                beta = BigInteger.ONE.shiftLeft(125 + p.bitLength()).divide(p);
+            }
+            BigInteger x = beta.add(BigInteger.ONE);
+            g[(k - K_MIN) << 1] = x.shiftRight(63).longValue();
+            g[(k - K_MIN) << 1 | 1] = x.and(mask).longValue();
+        }
+    }
+
+    private DoubleFormat() {
+    }
+
+
+    /**
+     * Write a finite double.
+     * @param v A finite double.
+     * @param b The array to write into. It must have room for
+     *  <code>MAX_LENGTH</code> bytes after pos.
+     * @param pos The index to start writing at.
+     * @param ecma true for the ECMAScript layout, false for the Java layout.
+     * @return The index after the last byte written.
+     */
+    static int write(double v, byte[] b, int pos, boolean ecma) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & (C_MIN - 1);
+        int bq = (int)(bits >>> 52) & 0x7ff;
+        if (bits < 0 && !(ecma && v == 0)) {
+            b[pos++] = '-';
+        }
+        if (bq == 0 && t == 0) {
+            b[pos++] = '0';
+            return pos;
+        }
+        int q;
+        long c;
+        int dk = 0;
+        if (bq != 0) {
+            q = Q_MIN - 1 + bq;
+            c = C_MIN | t;
+
+// A whole number less than 2^53 is its own shortest decimal.
+
+            if (q < 0 && q > -53 && (c >> -q) << -q == c) {
+                return layout(c >> -q, 0, b, pos, ecma);
+            }
+        } else if (t < C_TINY) {
+
+// Java always gives these two at least two digits, as 4.9E-324 and 9.9E-324.
+
+            if (ecma) {
+                return layout(t == 1 ? 5 : 1, t == 1 ? -324 : -323, b, pos,
+                        true);
+            }
+            q = Q_MIN;
+            c = 10 * t;
+            dk = -1;
+        } else {
+            q = Q_MIN;
+            c = t;
+        }
+        int k = c != C_MIN || q == Q_MIN
+            ? flog10pow2(q)
+            : flog10threeQuartersPow2(q);
+        return layout(shortest(q, c, k), k + dk, b, pos, ecma);
+    }
+
+
+    /**
+     * Find the shortest decimal in the rounding interval of c times 2 to
+     * the q.
+     * @param q The binary exponent.
+     * @param c The significand.
+     * @param k The decimal exponent, floor(log10(2^q)), or
+     *  floor(log10(3/4 2^q)) when the interval is not centered.
+     * @return The decimal significand f, such that f times 10 to the k
+     *  reads back as c times 2 to the q. It may have trailing zeros.
+     */
+    private static long shortest(int q, long c, int k) {
+        int out = (int)c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl = c != C_MIN || q == Q_MIN ? cb - 2 : cb - 1;
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = g[(k - K_MIN) << 1];
+        long g0 = g[(k - K_MIN) << 1 | 1];
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+// First try the multiples of ten in the interval, which have fewer digits.
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = 10 * Math.multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return upin ? sp10 : tp10;
+            }
+        }
+
+// Then the two neighbors of the exact value, taking the closer one.
+
+        long u = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (u << 2) + out <= vbr;
+        if (uin != win) {
+            return uin ? s : u;
+        }
+        long cmp = vb - ((s + u) << 1);
+        return cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : u;
+    }
+
+
+    /**
+     * Multiply g by cp and round to odd, keeping the high 64 bits.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+
+    private static int flog10pow2(int e) {
+        return (int)(e * 661971961083L >> 41);
+    }
+
+
+    private static int flog10threeQuartersPow2(int e) {
+        return (int)(e * 661971961083L + -274743187321L >> 41);
+    }
+
+
+    private static int flog2pow10(int e) {
+        return (int)(e * 913124641741L >> 38);
+    }
+
+
+    /**
+     * Lay out the digits of f times 10 to the e.
+     */
+    private static int layout(long f, int e, byte[] b, int pos, boolean ecma) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e += 1;
+        }
+        int n = 1;
+        while (n < pow10.length && f >= pow10[n]) {
+            n += 1;
+        }
+
+// The value is 0.digits times ten to the point.
+
+        int point = n + e;
+        if (ecma ? point > 21 || point <= -6 : point > 7 || point < -2) {
+            digits(f, n, b, pos + 1);
+            b[pos] = b[pos + 1];
+            pos += 1;
+            if (n > 1) {
+                b[pos] = '.';
+                pos += n;
+            } else if (!ecma) {
+                b[pos++] = '.';
+                b[pos++] = '0';
+            }
+            b[pos++] = (byte)(ecma ? 'e' : 'E');
+            int x = point - 1;
+            if (x < 0) {
+                b[pos++] = '-';
+                x = -x;
+            } else if (ecma) {
+                b[pos++] = '+';
+            }
+            int m = x >= 100 ? 3 : x >= 10 ? 2 : 1;
+            digits(x, m, b, pos);
+            return pos + m;
+        }
+        if (point <= 0) {
+            b[pos++] = '0';
+            b[pos++] = '.';
+            for (; point < 0; point += 1) {
+                b[pos++] = '0';
+            }
+            digits(f, n, b, pos);
+            return pos + n;
+        }
+        if (point >= n) {
+            digits(f, n, b, pos);
+            pos += n;
+            for (; n < point; n += 1) {
+                b[pos++] = '0';
+            }
+            return pos;
+        }
+        digits(f, n, b, pos);
+        System.arraycopy(b, pos + point, b, pos + point + 1, n - point);
+        b[pos + point] = '.';
+        return pos + n + 1;
+    }
+
+
+    /**
+     * Write the n decimal digits of f.
+     */
+    private static void digits(long f, int n, byte[] b, int pos) {
+        for (int i = pos + n - 1; i >= pos; i -= 1) {
+            b[i] = (byte)('0' + f % 10);
+            f /= 10;
+        }
+    }
+}
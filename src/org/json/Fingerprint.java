@@ -0,0 +1,257 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A Fingerprint computes a 64-bit hash of a JSON value with XXH64. The
+ * value is fed to the hash as a canonical binary encoding, one member at a
+ * time, so no canonical text is ever built. Values that are equal as JSON
+ * have the same fingerprint: the members of an object are taken in key
+ * order, and numbers are encoded by value rather than by type, as
+ * <code>JSONObject.hashOf</code> hashes them.
+ * <p>
+ * The encoding gives each value a one byte type, followed by its content:
+ * <pre>
+ * object  'o' count (key value)*   keys in String.compareTo order
+ * array   'a' count value*
+ * string  's' length char*         UTF-16 code units, 2 bytes each
+ * number  'i' long                 a whole number that a long holds
+ *         'd' double               any other number, as its bits
+ * true    't'
+ * false   'f'
+ * null    'n'
+ * </pre>
+ * Counts and lengths are 4 bytes, and everything is little-endian.
+ * Any other value is encoded as the string that the writers would quote.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class Fingerprint {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    /**
+     * The four accumulators.
+     */
+    private long v1 = P1 + P2;
+    private long v2 = P2;
+    private long v3 = 0;
+    private long v4 = -P1;
+
+    /**
+     * The lanes of the stripe being filled.
+     */
+    private final long[] lanes = new long[4];
+
+    /**
+     * The number of full lanes in lanes.
+     */
+    private int count;
+
+    /**
+     * The bytes of the lane being filled, in its low bits.
+     */
+    private long word;
+
+    /**
+     * The number of bits in word.
+     */
+    private int bits;
+
+    /**
+     * The number of bytes in the stripes hashed so far.
+     */
+    private long total;
+
+
+    /**
+     * Compute the fingerprint of a value.
+     * @param value A JSON value.
+     * @return The 64-bit fingerprint.
+     */
+    static long of(Object value) {
+        Fingerprint f = new Fingerprint();
+        f.value(value);
+        return f.digest();
+    }
+
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+
+    private static long merge(long acc, long v) {
+        acc ^= round(0, v);
+        return acc * P1 + P4;
+    }
+
+
+    /**
+     * Add a full lane to the stripe, and hash the stripe if it is full.
+     */
+    private void lane(long v) {
+        this.lanes[this.count] = v;
+        this.count += 1;
+        if (this.count == 4) {
+            this.v1 = round(this.v1, this.lanes[0]);
+            this.v2 = round(this.v2, this.lanes[1]);
+            this.v3 = round(this.v3, this.lanes[2]);
+            this.v4 = round(this.v4, this.lanes[3]);
+            this.count = 0;
+            this.total += 32;
+        }
+    }
+
+
+    /**
+     * Feed the low n bytes of a long, least significant first.
+     */
+    private void write(long v, int n) {
+        if (n < 8) {
+            v &= (1L << (n * 8)) - 1;
+        }
+        this.word |= v << this.bits;
+        int filled = this.bits + n * 8;
+        if (filled < 64) {
+            this.bits = filled;
+            return;
+        }
+        this.lane(this.word);
+        this.word = this.bits == 0 ? 0 : v >>> (64 - this.bits);
+        this.bits = filled - 64;
+    }
+
+
+    private void writeString(String s) {
+        int length = s.length();
+        this.write('s', 1);
+        this.write(length, 4);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            this.write(s.charAt(i) |
+                (long)s.charAt(i + 1) << 16 |
+                (long)s.charAt(i + 2) << 32 |
+                (long)s.charAt(i + 3) << 48, 8);
+        }
+        for (; i < length; i += 1) {
+            this.write(s.charAt(i), 2);
+        }
+    }
+
+
+    /**
+     * Feed a value to the hash.
+     */
+    private void value(Object value) {
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        if (value == null || value.equals(null)) {
+            this.write('n', 1);
+        } else if (value instanceof String) {
+            this.writeString((String)value);
+        } else if (value instanceof JSONObject) {
+            JSONObject jo = (JSONObject)value;
+            String[] keys = jo.sortedKeys();
+            this.write('o', 1);
+            this.write(keys.length, 4);
+            for (int i = 0; i < keys.length; i += 1) {
+                this.writeString(keys[i]);
+                this.value(jo.peek(keys[i]));
+            }
+        } else if (value instanceof JSONArray) {
+            ValueList list = ((JSONArray)value).list();
+            int length = list.size();
+            this.write('a', 1);
+            this.write(length, 4);
+            for (int i = 0; i < length; i += 1) {
+                this.value(list.get(i));
+            }
+        } else if (value instanceof Number) {
+            Number number = (Number)value;
+            if (JSONObject.isWhole(number)) {
+                this.write('i', 1);
+                this.write(number.longValue(), 8);
+            } else {
+                this.write('d', 1);
+                this.write(Double.doubleToLongBits(number.doubleValue()), 8);
+            }
+        } else if (value instanceof Boolean) {
+            this.write(((Boolean)value).booleanValue() ? 't' : 'f', 1);
+        } else {
+            this.writeString(value.toString());
+        }
+    }
+
+
+    /**
+     * Finish the hash.
+     * @return The 64-bit hash of everything fed so far.
+     */
+    private long digest() {
+        long h;
+        if (this.total > 0) {
+            h = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7) +
+                Long.rotateLeft(this.v3, 12) + Long.rotateLeft(this.v4, 18);
+            h = merge(h, this.v1);
+            h = merge(h, this.v2);
+            h = merge(h, this.v3);
+            h = merge(h, this.v4);
+        } else {
+            h = P5;
+        }
+        h += this.total + this.count * 8 + this.bits / 8;
+        for (int i = 0; i < this.count; i += 1) {
+            h ^= round(0, this.lanes[i]);
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        long word = this.word;
+        int bits = this.bits;
+        if (bits >= 32) {
+            h ^= (word & 0xffffffffL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            word >>>= 32;
+            bits -= 32;
+        }
+        for (; bits > 0; bits -= 8) {
+            h ^= (word & 0xffL) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+            word >>>= 8;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+}
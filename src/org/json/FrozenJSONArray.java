@@ -0,0 +1,127 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A FrozenJSONArray is a deeply immutable JSONArray, made by
+ * <code>JSONArray.freeze</code>. Its elements are put in by its constructor
+ * and never changed, and the values it holds are themselves frozen, so it
+ * can be read by any number of threads at once. Its hash is computed once,
+ * and it may also hold its compact text.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class FrozenJSONArray extends JSONArray {
+
+    /**
+     * The hash of the elements.
+     */
+    private final int hash;
+
+    /**
+     * The compact UTF-8 text, or null if it was not asked for or if the
+     * array holds an unpaired surrogate.
+     */
+    private final byte[] text;
+
+
+    /**
+     * Make a frozen copy of a JSONArray.
+     * @param source The JSONArray to copy.
+     * @param cacheText true to make the compact text now and keep it.
+     * @throws JSONException If a value cannot be decoded, or if the array
+     *  contains an invalid number.
+     */
+    FrozenJSONArray(JSONArray source, boolean cacheText)
+            throws JSONException {
+        super(elements(source));
+        this.hash = super.hashElements();
+        this.text = cacheText ? JSONByteWriter.text(this) : null;
+    }
+
+
+    /**
+     * Fill a list with frozen copies of the elements of an array. The list
+     * is filled before it is stored in the final field, so that every
+     * thread that sees the FrozenJSONArray sees the filled list.
+     */
+    private static ValueList elements(JSONArray source)
+            throws JSONException {
+        ValueList from = source.list();
+        ValueList list = new ValueList();
+        int length = from.size();
+        for (int i = 0; i < length; i += 1) {
+            list.add(JSONObject.freezeValue(from.get(i)));
+        }
+        return list;
+    }
+
+
+    public JSONArray freeze(boolean cacheText) throws JSONException {
+        return !cacheText || this.text != null
+            ? this
+            : new FrozenJSONArray(this, true);
+    }
+
+
+    public boolean isFrozen() {
+        return true;
+    }
+
+
+    public JSONArray put(Object value) {
+        throw new UnsupportedOperationException("JSONArray is frozen.");
+    }
+
+
+    public JSONArray put(int index, Object value) {
+        throw new UnsupportedOperationException("JSONArray is frozen.");
+    }
+
+
+    public Object remove(int index) {
+        throw new UnsupportedOperationException("JSONArray is frozen.");
+    }
+
+
+    public void setTextCached(boolean cached) {
+        throw new UnsupportedOperationException("JSONArray is frozen.");
+    }
+
+
+    byte[] cachedText() {
+        return this.text;
+    }
+
+
+    int hashElements() {
+        return this.hash;
+    }
+
+
+    public int hashCode() {
+        return this.hash;
+    }
+}
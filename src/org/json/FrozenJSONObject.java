@@ -0,0 +1,130 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A FrozenJSONObject is a deeply immutable JSONObject, made by
+ * <code>JSONObject.freeze</code>. Its members are put in by its constructor
+ * and never changed, and the values it holds are themselves frozen, so it
+ * can be read by any number of threads at once. Its hash is computed once,
+ * and it may also hold its compact text.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class FrozenJSONObject extends JSONObject {
+
+    /**
+     * The hash of the members.
+     */
+    private final int hash;
+
+    /**
+     * The compact UTF-8 text, or null if it was not asked for or if the
+     * object holds an unpaired surrogate.
+     */
+    private final byte[] text;
+
+
+    /**
+     * Make a frozen copy of a JSONObject.
+     * @param source The JSONObject to copy.
+     * @param cacheText true to make the compact text now and keep it.
+     * @throws JSONException If a value cannot be decoded, or if the object
+     *  contains an invalid number.
+     */
+    FrozenJSONObject(JSONObject source, boolean cacheText)
+            throws JSONException {
+        super(members(source));
+        this.hash = super.hashMembers();
+        this.text = cacheText ? JSONByteWriter.text(this) : null;
+    }
+
+
+    /**
+     * Fill a map with frozen copies of the members of an object. The map is
+     * filled before it is stored in the final field, so that every thread
+     * that sees the FrozenJSONObject sees the filled map.
+     */
+    private static SmallMap members(JSONObject source) throws JSONException {
+        SmallMap map = new SmallMap();
+        Iterator keys = source.keys();
+        while (keys.hasNext()) {
+            String key = keys.next().toString();
+            map.put(key, freezeValue(source.peek(key)));
+        }
+        return map;
+    }
+
+
+    public JSONObject freeze(boolean cacheText) throws JSONException {
+        return !cacheText || this.text != null
+            ? this
+            : new FrozenJSONObject(this, true);
+    }
+
+
+    public boolean isFrozen() {
+        return true;
+    }
+
+
+    public JSONObject put(String key, Object value) {
+        throw new UnsupportedOperationException("JSONObject is frozen.");
+    }
+
+
+    public Object remove(String key) {
+        throw new UnsupportedOperationException("JSONObject is frozen.");
+    }
+
+
+    public Set keySet() {
+        return Collections.unmodifiableSet(super.keySet());
+    }
+
+
+    public void setTextCached(boolean cached) {
+        throw new UnsupportedOperationException("JSONObject is frozen.");
+    }
+
+
+    byte[] cachedText() {
+        return this.text;
+    }
+
+
+    int hashMembers() {
+        return this.hash;
+    }
+
+
+    public int hashCode() {
+        return this.hash;
+    }
+}
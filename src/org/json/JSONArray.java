@@ -25,10 +25,10 @@ SOFTWARE.
 */
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.lang.reflect.Array;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -83,18 +83,46 @@ public class JSONArray {
 
 
     /**
-     * The arrayList where the JSONArray's properties are kept.
+     * The list where the JSONArray's properties are kept. Arrays made only
+     * of ints, longs or doubles are stored unboxed.
      */
-    private final ArrayList myArrayList;
+    private final ValueList myArrayList;
+
+
+    /**
+     * The cache of this array's compact text, or null if neither this array
+     * nor a cached container that holds it has asked for one.
+     */
+    private TextCache cache;
 
 
     /**
      * Construct an empty JSONArray.
      */
     public JSONArray() {
-        this.myArrayList = new ArrayList();
+        this.myArrayList = new ValueList();
+    }
+
+
+    /**
+     * Construct a JSONArray around a list that is already filled.
+     * @param list A ValueList.
+     */
+    JSONArray(ValueList list) {
+        this.myArrayList = list;
+    }
+
+
+    /**
+     * Empty this JSONArray so that a JSONParseContext can fill it again,
+     * keeping the array that holds its elements.
+     */
+    void recycle() {
+        this.myArrayList.clear();
+        this.cache = null;
     }
 
+
     /**
      * Construct a JSONArray from a JSONTokener.
      * @param x A JSONTokener
@@ -102,6 +130,17 @@ public class JSONArray {
      */
     public JSONArray(JSONTokener x) throws JSONException {
         this();
+        this.read(x);
+    }
+
+
+    /**
+     * Read the elements of an array from a JSONTokener into this empty
+     * JSONArray.
+     * @param x A JSONTokener positioned before the opening bracket.
+     * @throws JSONException If there is a syntax error.
+     */
+    void read(JSONTokener x) throws JSONException {
         if (x.nextClean() != '[') {
             throw x.syntaxError("A JSONArray text must start with '['");
         }
@@ -145,12 +184,26 @@ public class JSONArray {
     }
 
 
+    /**
+     * Parse a JSONArray lazily from a source JSON text. Each element is only
+     * decoded when it is first read. See JSONObject.parseLazy.
+     * @param source     A string that begins with
+     * <code>[</code>&nbsp;<small>(left bracket)</small>
+     *  and ends with <code>]</code>&nbsp;<small>(right bracket)</small>.
+     * @return A JSONArray.
+     * @throws JSONException If there is a syntax error.
+     */
+    public static JSONArray parseLazy(String source) throws JSONException {
+        return new LazyScanner(source).array();
+    }
+
+
     /**
      * Construct a JSONArray from a Collection.
      * @param collection     A Collection.
      */
     public JSONArray(Collection collection) {
-        this.myArrayList = new ArrayList();
+        this.myArrayList = new ValueList();
         if (collection != null) {
             Iterator iter = collection.iterator();
             while (iter.hasNext()) {
@@ -161,11 +214,15 @@ public class JSONArray {
 
 
     /**
-     * Construct a JSONArray from an array
+     * Construct a JSONArray from an array. An int[], long[] or double[] is
+     * copied into unboxed storage.
      * @throws JSONException If not an array.
      */
     public JSONArray(Object array) throws JSONException {
         this();
+        if (this.myArrayList.setPrimitives(array)) {
+            return;
+        }
         if (array.getClass().isArray()) {
             int length = Array.getLength(array);
             for (int i = 0; i < length; i += 1) {
@@ -227,6 +284,9 @@ public class JSONArray {
      *  be converted to a number.
      */
     public double getDouble(int index) throws JSONException {
+        if (this.isNumeric(index)) {
+            return this.myArrayList.doubleValue(index);
+        }
         Object object = this.get(index);
         try {
             return object instanceof Number
@@ -247,6 +307,9 @@ public class JSONArray {
      * @throws   JSONException If the key is not found or if the value is not a number.
      */
     public int getInt(int index) throws JSONException {
+        if (this.isNumeric(index)) {
+            return this.myArrayList.intValue(index);
+        }
         Object object = this.get(index);
         try {
             return object instanceof Number
@@ -302,6 +365,9 @@ public class JSONArray {
      *  be converted to a number.
      */
     public long getLong(int index) throws JSONException {
+        if (this.isNumeric(index)) {
+            return this.myArrayList.longValue(index);
+        }
         Object object = this.get(index);
         try {
             return object instanceof Number
@@ -329,6 +395,27 @@ public class JSONArray {
     }
 
 
+    /**
+     * Get the list that holds the elements, so that writers in this
+     * package can read unboxed numbers directly.
+     * @return The list.
+     */
+    ValueList list() {
+        return this.myArrayList;
+    }
+
+
+    /**
+     * Determine if the array is stored unboxed and the index is in range.
+     * @param index An index.
+     * @return true if the value can be read without unboxing.
+     */
+    private boolean isNumeric(int index) {
+        return this.myArrayList.kind() != ValueList.objects &&
+            index >= 0 && index < this.myArrayList.size();
+    }
+
+
     /**
      * Determine if the value is null.
      * @param index The index must be between 0 and length() - 1.
@@ -378,9 +465,18 @@ public class JSONArray {
      *              object at that index.
      */
     public Object opt(int index) {
-        return (index < 0 || index >= this.length())
-            ? null
-            : this.myArrayList.get(index);
+        if (index < 0 || index >= this.length()) {
+            return null;
+        }
+        Object value = this.myArrayList.get(index);
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+            this.myArrayList.set(index, value);
+            if (this.cache != null) {
+                TextCache.watchChild(this.cache, value);
+            }
+        }
+        return value;
     }
 
 
@@ -407,11 +503,7 @@ public class JSONArray {
      * @return      The truth.
      */
     public boolean optBoolean(int index, boolean defaultValue)  {
-        try {
-            return this.getBoolean(index);
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        return JSONObject.toBoolean(this.opt(index), defaultValue);
     }
 
 
@@ -438,11 +530,17 @@ public class JSONArray {
      * @return      The value.
      */
     public double optDouble(int index, double defaultValue) {
-        try {
-            return this.getDouble(index);
-        } catch (Exception e) {
-            return defaultValue;
+        Object object = this.opt(index);
+        if (object instanceof Number) {
+            return ((Number)object).doubleValue();
+        }
+        if (object instanceof String) {
+            try {
+                return Double.parseDouble((String)object);
+            } catch (NumberFormatException e) {
+            }
         }
+        return defaultValue;
     }
 
 
@@ -468,11 +566,17 @@ public class JSONArray {
      * @return      The value.
      */
     public int optInt(int index, int defaultValue) {
-        try {
-            return this.getInt(index);
-        } catch (Exception e) {
-            return defaultValue;
+        Object object = this.opt(index);
+        if (object instanceof Number) {
+            return ((Number)object).intValue();
+        }
+        if (object instanceof String) {
+            try {
+                return Integer.parseInt((String)object);
+            } catch (NumberFormatException e) {
+            }
         }
+        return defaultValue;
     }
 
 
@@ -524,11 +628,17 @@ public class JSONArray {
      * @return      The value.
      */
     public long optLong(int index, long defaultValue) {
-        try {
-            return this.getLong(index);
-        } catch (Exception e) {
-            return defaultValue;
+        Object object = this.opt(index);
+        if (object instanceof Number) {
+            return ((Number)object).longValue();
+        }
+        if (object instanceof String) {
+            try {
+                return Long.parseLong((String)object);
+            } catch (NumberFormatException e) {
+            }
         }
+        return defaultValue;
     }
 
 
@@ -561,6 +671,52 @@ public class JSONArray {
     }
 
 
+    /**
+     * Get the type of the value associated with an index. This never
+     * throws, and it does not decode a value of a lazily parsed array.
+     *
+     * @param index The index.
+     * @return      JSONTape.OBJECT, ARRAY, STRING, NUMBER, BOOLEAN or NULL,
+     *  or JSONTape.MISSING if the index is out of range.
+     */
+    public int typeOf(int index) {
+        if (index < 0 || index >= this.length()) {
+            return JSONTape.MISSING;
+        }
+        return JSONObject.typeOfValue(this.myArrayList.get(index));
+    }
+
+
+    /**
+     * Get the number associated with an index, if it is a number. Unlike
+     * optDouble, optInt and optLong, this does not convert strings, and it
+     * tells a missing number from a zero.
+     *
+     * @param index The index.
+     * @return      The Number, or null if the value is missing or is not a
+     *  number.
+     */
+    public Number tryGetNumber(int index) {
+        Object object = this.opt(index);
+        return object instanceof Number ? (Number)object : null;
+    }
+
+
+    /**
+     * Get the string associated with an index, if it is a string. Unlike
+     * getString, this never throws, and unlike optString, it does not
+     * convert other values to strings.
+     *
+     * @param index The index.
+     * @return      The string, or null if the value is missing or is not a
+     *  string.
+     */
+    public String tryGetString(int index) {
+        Object object = this.opt(index);
+        return object instanceof String ? (String)object : null;
+    }
+
+
     /**
      * Append a boolean value. This increases the array's length by one.
      *
@@ -645,6 +801,9 @@ public class JSONArray {
      */
     public JSONArray put(Object value) {
         this.myArrayList.add(value);
+        if (this.cache != null) {
+            this.cache.changed();
+        }
         return this;
     }
 
@@ -758,7 +917,11 @@ public class JSONArray {
             throw new JSONException("JSONArray[" + index + "] not found.");
         }
         if (index < this.length()) {
-            this.myArrayList.set(index, value);
+            Object old = this.myArrayList.set(index, value);
+            if (this.cache != null) {
+                this.cache.changed();
+                TextCache.unwatchChild(this.cache, this, old);
+            }
         } else {
             while (index != this.length()) {
                 this.put(JSONObject.NULL);
@@ -770,15 +933,184 @@ public class JSONArray {
 
 
     /**
-     * Remove an index and close the hole.
+     * Remove an index and close the hole. An element that was parsed lazily
+     * and never read is decoded for the result, but is not kept.
      * @param index The index of the element to be removed.
      * @return The value that was associated with the index,
      * or null if there was no value.
      */
     public Object remove(int index) {
-        Object o = this.opt(index);
-        this.myArrayList.remove(index);
-        return o;
+        Object o = this.myArrayList.remove(index);
+        if (this.cache != null) {
+            this.cache.changed();
+            TextCache.unwatchChild(this.cache, this, o);
+        }
+        return o instanceof LazyValue ? ((LazyValue)o).value() : o;
+    }
+
+
+    /**
+     * Keep the compact text of this JSONArray once it has been made, so that
+     * <code>toString()</code>, <code>toByteArray()</code> and the writers
+     * can reuse it until the array changes. A <code>put</code> or
+     * <code>remove</code> on this array, or on any JSONObject or JSONArray
+     * inside it, drops the text.
+     *
+     * @param cached true to keep the text, false to drop it.
+     */
+    public void setTextCached(boolean cached) {
+        TextCache cache = this.textCache();
+        cache.enabled = cached;
+        cache.text = null;
+    }
+
+
+    /**
+     * Get the cache that tracks changes to this array, making it if there
+     * is none.
+     * @return The cache.
+     */
+    TextCache textCache() {
+        if (this.cache == null) {
+            this.cache = new TextCache();
+        }
+        return this.cache;
+    }
+
+
+    /**
+     * Get the cached compact text of this array, making it if it has
+     * changed.
+     * @return The UTF-8 text, or null if the array does not keep its text.
+     * @throws JSONException If the array contains an invalid number.
+     */
+    byte[] cachedText() throws JSONException {
+        TextCache cache = this.cache;
+        return cache != null && cache.enabled ? cache.text(this) : null;
+    }
+
+
+    /**
+     * Make the canonical JSON text of this JSONArray, encoded as UTF-8, so
+     * that arrays that are <code>equals</code> give the same bytes. See
+     * <code>JSONObject.toCanonicalByteArray</code>.
+     *
+     * @return The bytes of the canonical JSON text.
+     * @throws JSONException If the array contains an invalid number.
+     */
+    public byte[] toCanonicalByteArray() throws JSONException {
+        return JSONByteWriter.toCanonicalByteArray(this);
+    }
+
+
+    /**
+     * Make a deeply immutable copy of this JSONArray. Every JSONObject and
+     * JSONArray inside it is frozen too. The copy can be shared with any
+     * number of threads without copying or locking. See
+     * <code>JSONObject.freeze</code>.
+     *
+     * @return A frozen JSONArray, or this if this is already frozen.
+     * @throws JSONException If a lazily parsed value cannot be decoded.
+     */
+    public JSONArray freeze() throws JSONException {
+        return this.freeze(false);
+    }
+
+
+    /**
+     * Make a deeply immutable copy of this JSONArray, as
+     * <code>freeze()</code> does, and optionally make its compact text up
+     * front so that it is written out by copying bytes.
+     *
+     * @param cacheText true to keep the compact UTF-8 text of the copy.
+     * @return A frozen JSONArray, or this if this is already frozen and
+     *  has its text if that was asked for.
+     * @throws JSONException If a value cannot be decoded, or if the array
+     *  contains an invalid number.
+     */
+    public JSONArray freeze(boolean cacheText) throws JSONException {
+        return new FrozenJSONArray(this, cacheText);
+    }
+
+
+    /**
+     * Determine if this JSONArray is frozen.
+     * @return true if this was made by <code>freeze</code>.
+     */
+    public boolean isFrozen() {
+        return false;
+    }
+
+
+    /**
+     * Determine if another object is a JSONArray with the same elements in
+     * the same order. Elements are compared as
+     * <code>JSONObject.equals</code> compares values.
+     *
+     * @param other The object to compare with.
+     * @return true if the other object is a JSONArray with equal elements.
+     */
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof JSONArray)) {
+            return false;
+        }
+        JSONArray ja = (JSONArray)other;
+        int length = this.length();
+        if (length != ja.length() ||
+                this.isFrozen() && ja.isFrozen() &&
+                this.hashCode() != ja.hashCode()) {
+            return false;
+        }
+        for (int i = 0; i < length; i += 1) {
+            if (!JSONObject.valuesEqual(this.myArrayList.get(i),
+                    ja.myArrayList.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Compute a hash of the elements of this JSONArray, consistent with
+     * <code>equals</code>. Since a JSONArray can change, it should not be
+     * changed while it is a key in a hash table; a frozen JSONArray can be
+     * used safely, and computes its hash only once.
+     *
+     * @return The hash.
+     */
+    public int hashCode() {
+        return this.hashElements();
+    }
+
+
+    /**
+     * Compute a 64-bit fingerprint of the contents of this JSONArray with
+     * XXH64. Arrays that are <code>equals</code> have the same fingerprint.
+     * See <code>JSONObject.fingerprint</code>.
+     *
+     * @return The fingerprint.
+     */
+    public long fingerprint() {
+        return Fingerprint.of(this);
+    }
+
+
+    /**
+     * Compute a hash of this array's elements, in order, such that arrays
+     * with the same elements have the same hash.
+     * @return The hash.
+     */
+    int hashElements() {
+        int h = 1;
+        int length = this.length();
+        for (int i = 0; i < length; i += 1) {
+            h = 31 * h + JSONObject.hashOf(this.myArrayList.get(i));
+        }
+        return h;
     }
 
 
@@ -835,10 +1167,38 @@ public class JSONArray {
      * @throws JSONException
      */
     public String toString(int indentFactor) throws JSONException {
-        StringWriter sw = new StringWriter();
-        synchronized (sw.getBuffer()) {
-            return this.write(sw, indentFactor, 0).toString();
+        byte[] text = indentFactor == 0 ? this.cachedText() : null;
+        if (text != null) {
+            return new String(text, StandardCharsets.UTF_8);
         }
+        return this.write(new StringBuilderWriter(64), indentFactor, 0)
+            .toString();
+    }
+
+
+    /**
+     * Make a JSON text of this JSONArray, encoded as UTF-8. The bytes are
+     * the same as those of <code>toString().getBytes("UTF-8")</code>, but
+     * they are produced without the intermediate String.
+     *
+     * @return The bytes of the JSON text.
+     * @throws JSONException If the array contains an invalid number.
+     */
+    public byte[] toByteArray() throws JSONException {
+        return JSONByteWriter.toByteArray(this);
+    }
+
+
+    /**
+     * Write the contents of the JSONArray as UTF-8 JSON text to a stream.
+     * For compactness, no whitespace is added.
+     *
+     * @param out The stream. It is not flushed or closed.
+     * @throws JSONException If the array contains an invalid number or if
+     *  the stream fails.
+     */
+    public void write(OutputStream out) throws JSONException {
+        JSONByteWriter.write(this, out);
     }
 
     /**
@@ -870,13 +1230,17 @@ public class JSONArray {
     Writer write(Writer writer, int indentFactor, int indent)
             throws JSONException {
         try {
+            byte[] text = indentFactor == 0 ? this.cachedText() : null;
+            if (text != null) {
+                writer.write(new String(text, StandardCharsets.UTF_8));
+                return writer;
+            }
             boolean commanate = false;
             int length = this.length();
             writer.write('[');
 
             if (length == 1) {
-                JSONObject.writeValue(writer, this.myArrayList.get(0),
-                        indentFactor, indent);
+                this.writeElement(writer, 0, indentFactor, indent);
             } else if (length != 0) {
                 final int newindent = indent + indentFactor;
 
@@ -888,8 +1252,7 @@ public class JSONArray {
                         writer.write('\n');
                     }
                     JSONObject.indent(writer, newindent);
-                    JSONObject.writeValue(writer, this.myArrayList.get(i),
-                            indentFactor, newindent);
+                    this.writeElement(writer, i, indentFactor, newindent);
                     commanate = true;
                 }
                 if (indentFactor > 0) {
@@ -903,4 +1266,32 @@ public class JSONArray {
            throw new JSONException(e);
         }
     }
+
+
+    /**
+     * Write one element of the JSONArray. Unboxed numbers are written
+     * directly from the backing array.
+     */
+    private void writeElement(Writer writer, int index, int indentFactor,
+            int indent) throws JSONException, IOException {
+        switch (this.myArrayList.kind()) {
+        case ValueList.ints:
+            writer.write(Integer.toString(this.myArrayList.intValue(index)));
+            break;
+        case ValueList.longs:
+            writer.write(Long.toString(this.myArrayList.longValue(index)));
+            break;
+        case ValueList.doubles:
+            double d = this.myArrayList.doubleValue(index);
+            if (Double.isInfinite(d) || Double.isNaN(d)) {
+                throw new JSONException(
+                    "JSON does not allow non-finite numbers.");
+            }
+            writer.write(JSONObject.doubleToString(d));
+            break;
+        default:
+            JSONObject.writeValue(writer, this.myArrayList.get(index),
+                    indentFactor, indent);
+        }
+    }
 }
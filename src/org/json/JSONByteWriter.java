@@ -0,0 +1,731 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSONByteWriter writes JSON text directly as UTF-8 bytes, either into a
+ * growable byte array or through to an <code>OutputStream</code>. No
+ * intermediate String or char array is made for the document, so a
+ * JSONObject can be put on the wire without first being turned into text
+ * and then encoded again.
+ * <p>
+ * The output is the same as that of <code>toString()</code>, encoded as
+ * UTF-8. Each thread keeps one scratch writer whose buffer is reused by the
+ * static methods, so repeated encoding does not allocate a new buffer each
+ * time.
+ * <pre>
+ * byte[] body = JSONByteWriter.toByteArray(myJSONObject);
+ * JSONByteWriter.write(myJSONObject, outputStream);</pre>
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class JSONByteWriter {
+
+    /**
+     * The size of the scratch buffer.
+     */
+    private static final int bufferSize = 8192;
+
+    /**
+     * A scratch buffer that has grown beyond this size is not kept for reuse.
+     */
+    private static final int maxPooledSize = 65536;
+
+    private static final byte[] hex = {
+        '0', '1', '2', '3', '4', '5', '6', '7',
+        '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private static final ThreadLocal pool = new ThreadLocal();
+
+    /**
+     * The buffer that receives the bytes.
+     */
+    private byte[] buf;
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int count;
+
+    /**
+     * The stream that the buffer is flushed to when it fills, or null if the
+     * buffer should grow instead.
+     */
+    private OutputStream out;
+
+    /**
+     * Whether this writer is being used by one of the static methods.
+     */
+    private boolean busy;
+
+    /**
+     * Whether the output is canonical.
+     */
+    private boolean canonical;
+
+    /**
+     * Whether an unpaired surrogate has been written as <code>?</code>, so
+     * that the bytes no longer decode to the text that a Writer would get.
+     */
+    private boolean lossy;
+
+
+    /**
+     * Make a fresh JSONByteWriter that collects its output in a byte array.
+     */
+    public JSONByteWriter() {
+        this(bufferSize);
+    }
+
+
+    /**
+     * Make a fresh JSONByteWriter with an initial buffer capacity.
+     * @param capacity The initial size of the buffer.
+     */
+    public JSONByteWriter(int capacity) {
+        this.buf = new byte[Math.max(capacity, 16)];
+    }
+
+
+    /**
+     * Make a JSONByteWriter that writes through to a stream. Call
+     * <code>flush</code> when done.
+     * @param out The stream.
+     */
+    public JSONByteWriter(OutputStream out) {
+        this(bufferSize);
+        this.out = out;
+    }
+
+
+    /**
+     * Take the writer for this thread, or a new one if it is in use.
+     */
+    static JSONByteWriter acquire(OutputStream out) {
+        JSONByteWriter w = (JSONByteWriter)pool.get();
+        if (w == null) {
+            w = new JSONByteWriter();
+            pool.set(w);
+        } else if (w.busy) {
+            w = new JSONByteWriter();
+        }
+        w.busy = true;
+        w.out = out;
+        w.count = 0;
+        w.lossy = false;
+        return w;
+    }
+
+
+    /**
+     * Give a writer back to this thread, dropping its buffer if it has grown
+     * too large to keep.
+     */
+    static void release(JSONByteWriter w) {
+        w.busy = false;
+        w.canonical = false;
+        w.out = null;
+        w.count = 0;
+        if (w.buf.length > maxPooledSize) {
+            w.buf = new byte[bufferSize];
+        }
+    }
+
+
+    /**
+     * Encode a value as UTF-8 JSON text.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return The bytes of the JSON text.
+     * @throws JSONException If the value is or contains an invalid number.
+     */
+    public static byte[] toByteArray(Object value) throws JSONException {
+        JSONByteWriter w = acquire(null);
+        try {
+            w.value(value);
+            return w.toByteArray();
+        } finally {
+            release(w);
+        }
+    }
+
+
+    /**
+     * Encode a value as canonical UTF-8 JSON text. See
+     * <code>setCanonical</code>.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return The bytes of the canonical JSON text.
+     * @throws JSONException If the value is or contains an invalid number.
+     */
+    public static byte[] toCanonicalByteArray(Object value)
+            throws JSONException {
+        JSONByteWriter w = acquire(null);
+        try {
+            w.canonical = true;
+            w.value(value);
+            return w.toByteArray();
+        } finally {
+            release(w);
+        }
+    }
+
+
+    /**
+     * Make the compact text of a JSONObject or JSONArray, without using any
+     * text that it has cached. The text is only worth keeping if it decodes
+     * to what <code>toString</code> would make, so it is not made for a
+     * container that holds an unpaired surrogate.
+     * @param container A JSONObject or JSONArray.
+     * @return The bytes of the JSON text, or null if the container holds an
+     *  unpaired surrogate.
+     * @throws JSONException If the container holds an invalid number.
+     */
+    static byte[] text(Object container) throws JSONException {
+        JSONByteWriter w = acquire(null);
+        try {
+            if (container instanceof JSONObject) {
+                w.members((JSONObject)container);
+            } else {
+                w.elements((JSONArray)container);
+            }
+            return w.lossy ? null : w.toByteArray();
+        } finally {
+            release(w);
+        }
+    }
+
+
+    /**
+     * Write a value as UTF-8 JSON text to a stream.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @param out The stream. It is not flushed or closed.
+     * @throws JSONException If the value is or contains an invalid number,
+     *  or if the stream fails.
+     */
+    public static void write(Object value, OutputStream out)
+            throws JSONException {
+        JSONByteWriter w = acquire(out);
+        try {
+            w.value(value);
+            w.flush();
+        } finally {
+            release(w);
+        }
+    }
+
+
+    /**
+     * Choose whether the output is canonical, so that values that are
+     * <code>equals</code> are always written as the same bytes. This
+     * follows RFC 8785, the JSON Canonicalization Scheme:
+     * <ul>
+     * <li>The members of an object are written in the order of their keys,
+     * compared as <code>String.compareTo</code> compares them, which is the
+     * order of their UTF-16 code units.</li>
+     * <li>Strings escape only what JSON requires: <code>"</code>,
+     * <code>\</code> and the control characters, using the short escapes
+     * where there are any and lowercase hex otherwise.</li>
+     * <li>Numbers are written as ECMAScript writes them, with the fewest
+     * digits that read back as the same double.</li>
+     * </ul>
+     * One difference from RFC 8785 keeps integers exact: a whole number
+     * that a long holds is written with all of its digits, even if it is
+     * larger than a double holds exactly.
+     * @param canonical true for canonical output.
+     */
+    public void setCanonical(boolean canonical) {
+        this.canonical = canonical;
+    }
+
+
+    /**
+     * Get the number of bytes written and not yet flushed.
+     * @return The byte count.
+     */
+    public int size() {
+        return this.count;
+    }
+
+
+    /**
+     * Discard the bytes written so far, so that the writer can be reused.
+     */
+    public void reset() {
+        this.count = 0;
+        this.lossy = false;
+    }
+
+
+    /**
+     * Get a copy of the bytes written so far.
+     * @return A byte array.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[this.count];
+        System.arraycopy(this.buf, 0, bytes, 0, this.count);
+        return bytes;
+    }
+
+
+    /**
+     * Write the buffered bytes to the stream, if there is one.
+     * @throws JSONException If the stream fails.
+     */
+    public void flush() throws JSONException {
+        if (this.out != null) {
+            try {
+                this.out.write(this.buf, 0, this.count);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            this.count = 0;
+        }
+    }
+
+
+    /**
+     * Make room for n more bytes, flushing or growing the buffer.
+     */
+    private void ensure(int n) throws JSONException {
+        if (this.count + n <= this.buf.length) {
+            return;
+        }
+        if (this.out != null) {
+            this.flush();
+            if (n <= this.buf.length) {
+                return;
+            }
+        }
+        int length = Math.max(this.buf.length << 1, this.count + n);
+        byte[] b = new byte[length];
+        System.arraycopy(this.buf, 0, b, 0, this.count);
+        this.buf = b;
+    }
+
+
+    /**
+     * Write one ASCII byte.
+     */
+    void write(int b) throws JSONException {
+        if (this.count == this.buf.length) {
+            this.ensure(1);
+        }
+        this.buf[this.count++] = (byte)b;
+    }
+
+
+    /**
+     * Write a string that is known to be ASCII.
+     */
+    private void writeAscii(String s) throws JSONException {
+        int len = s.length();
+        this.ensure(len);
+        for (int i = 0; i < len; i += 1) {
+            this.buf[this.count++] = (byte)s.charAt(i);
+        }
+    }
+
+
+    /**
+     * Write a string as UTF-8 without quoting it.
+     */
+    private void writeRaw(String s) throws JSONException {
+        this.writeRaw(s, 0, s.length());
+    }
+
+
+    /**
+     * Write part of a string as UTF-8 without quoting it.
+     */
+    private void writeRaw(String s, int start, int end)
+            throws JSONException {
+        for (int i = start; i < end; i += 1) {
+            i = this.writeChar(s, i);
+        }
+    }
+
+
+    /**
+     * Write the character at an index of a string as UTF-8. A surrogate pair
+     * is written as one four byte sequence, and an unpaired surrogate as
+     * <code>?</code>, as <code>String.getBytes</code> would.
+     * @return The index of the last character consumed.
+     */
+    private int writeChar(String s, int i) throws JSONException {
+        char c = s.charAt(i);
+        this.ensure(4);
+        byte[] b = this.buf;
+        if (c < 0x80) {
+            b[this.count++] = (byte)c;
+        } else if (c < 0x800) {
+            b[this.count++] = (byte)(0xc0 | (c >> 6));
+            b[this.count++] = (byte)(0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && i + 1 < s.length() &&
+                    Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(i + 1));
+                b[this.count++] = (byte)(0xf0 | (cp >> 18));
+                b[this.count++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+                b[this.count++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+                b[this.count++] = (byte)(0x80 | (cp & 0x3f));
+                return i + 1;
+            }
+            b[this.count++] = '?';
+            this.lossy = true;
+        } else {
+            b[this.count++] = (byte)(0xe0 | (c >> 12));
+            b[this.count++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+            b[this.count++] = (byte)(0x80 | (c & 0x3f));
+        }
+        return i;
+    }
+
+
+    /**
+     * Count the bytes of a string in UTF-8, with each unpaired surrogate
+     * counted as the one byte of <code>?</code>.
+     * @param s A string.
+     * @return The number of bytes.
+     */
+    static int utf8Length(String s) {
+        int len = s.length();
+        int n = len;
+        for (int i = 0; i < len; i += 1) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    n += 1;
+                } else if (!Character.isSurrogate(c)) {
+                    n += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < len &&
+                        Character.isLowSurrogate(s.charAt(i + 1))) {
+                    n += 2;
+                    i += 1;
+                }
+            }
+        }
+        return n;
+    }
+
+
+    /**
+     * Encode a string as UTF-8 into an array that has room for it, as
+     * <code>String.getBytes</code> would.
+     * @param s A string.
+     * @param b The array.
+     * @param p The index in the array to start at.
+     * @return The index after the last byte.
+     */
+    static int encodeUTF8(String s, byte[] b, int p) {
+        int len = s.length();
+        for (int i = 0; i < len; i += 1) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b[p++] = (byte)c;
+            } else if (c < 0x800) {
+                b[p++] = (byte)(0xc0 | (c >> 6));
+                b[p++] = (byte)(0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len &&
+                        Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(i + 1));
+                    b[p++] = (byte)(0xf0 | (cp >> 18));
+                    b[p++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+                    b[p++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+                    b[p++] = (byte)(0x80 | (cp & 0x3f));
+                    i += 1;
+                } else {
+                    b[p++] = '?';
+                }
+            } else {
+                b[p++] = (byte)(0xe0 | (c >> 12));
+                b[p++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+                b[p++] = (byte)(0x80 | (c & 0x3f));
+            }
+        }
+        return p;
+    }
+
+
+    /**
+     * Write a string in double quotes, escaped as <code>JSONObject.quote</code>
+     * would escape it.
+     * @param string A String.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public JSONByteWriter quote(String string) throws JSONException {
+        this.write('"');
+        int len = string == null ? 0 : string.length();
+        for (int i = 0; i < len; i += 1) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                String escape = JSONObject.escapes[c];
+                if (escape != null) {
+                    this.writeAscii(escape);
+                } else {
+                    if (c == '/' && i > 0 && string.charAt(i - 1) == '<' &&
+                            !this.canonical) {
+                        this.write('\\');
+                    }
+                    if (this.count == this.buf.length) {
+                        this.ensure(1);
+                    }
+                    this.buf[this.count++] = (byte)c;
+                }
+            } else if (!this.canonical && ((c >= 0x80 && c < 0xa0) ||
+                    (c >= 0x2000 && c < 0x2100))) {
+                this.ensure(6);
+                byte[] b = this.buf;
+                b[this.count++] = '\\';
+                b[this.count++] = 'u';
+                b[this.count++] = hex[c >> 12];
+                b[this.count++] = hex[(c >> 8) & 0xf];
+                b[this.count++] = hex[(c >> 4) & 0xf];
+                b[this.count++] = hex[c & 0xf];
+            } else {
+                i = this.writeChar(string, i);
+            }
+        }
+        this.write('"');
+        return this;
+    }
+
+
+    /**
+     * Write the decimal digits of a long.
+     * @param v A long.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public JSONByteWriter value(long v) throws JSONException {
+        if (v == Long.MIN_VALUE) {
+            this.writeAscii("-9223372036854775808");
+            return this;
+        }
+        this.ensure(20);
+        if (v < 0) {
+            this.buf[this.count++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) {
+            digits += 1;
+        }
+        int end = this.count + digits;
+        for (int p = end - 1; p >= this.count; p -= 1) {
+            this.buf[p] = (byte)('0' + (int)(v % 10));
+            v /= 10;
+        }
+        this.count = end;
+        return this;
+    }
+
+
+    /**
+     * Write a double as <code>JSONObject.doubleToString</code> would.
+     * @param d A double.
+     * @return this.
+     * @throws JSONException If the number is not finite, or if the stream
+     *  fails.
+     */
+    public JSONByteWriter value(double d) throws JSONException {
+        if (Double.isInfinite(d) || Double.isNaN(d)) {
+            throw new JSONException("JSON does not allow non-finite numbers.");
+        }
+        if (this.canonical && JSONObject.isWhole(Double.valueOf(d))) {
+            return this.value((long)d);
+        }
+        this.ensure(DoubleFormat.MAX_LENGTH);
+        this.count = DoubleFormat.write(d, this.buf, this.count,
+                this.canonical);
+        return this;
+    }
+
+
+    /**
+     * Write a value as JSON text.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return this.
+     * @throws JSONException If the value is or contains an invalid number,
+     *  or if the stream fails.
+     */
+    public JSONByteWriter value(Object value) throws JSONException {
+        if (this.canonical && value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        if (value == null || value.equals(null)) {
+            this.writeAscii("null");
+        } else if (value instanceof String) {
+            this.quote((String)value);
+        } else if (value instanceof JSONObject) {
+            this.object((JSONObject)value);
+        } else if (value instanceof JSONArray) {
+            this.array((JSONArray)value);
+        } else if (value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte) {
+            this.value(((Number)value).longValue());
+        } else if (value instanceof Double) {
+            this.value(((Double)value).doubleValue());
+        } else if (value instanceof Number) {
+            Number number = (Number)value;
+            if (!this.canonical) {
+                this.writeAscii(JSONObject.numberToString(number));
+            } else if (JSONObject.isWhole(number)) {
+                this.value(number.longValue());
+            } else {
+                this.value(number.doubleValue());
+            }
+        } else if (value instanceof Boolean) {
+            this.writeAscii(value.toString());
+        } else if (value instanceof Map) {
+            this.object(new JSONObject((Map)value));
+        } else if (value instanceof Collection) {
+            this.array(new JSONArray((Collection)value));
+        } else if (value.getClass().isArray()) {
+            this.array(new JSONArray(value));
+        } else if (value instanceof RawValue) {
+            RawValue raw = (RawValue)value;
+            this.writeRaw(raw.source, raw.start, raw.end);
+        } else if (value instanceof JSONString) {
+            Object o;
+            try {
+                o = ((JSONString)value).toJSONString();
+            } catch (Exception e) {
+                throw new JSONException(e);
+            }
+            if (o == null) {
+                this.quote(value.toString());
+            } else if (this.canonical) {
+                this.value(new JSONTokener(o.toString()).nextValue());
+            } else {
+                this.writeRaw(o.toString());
+            }
+        } else {
+            this.quote(value.toString());
+        }
+        return this;
+    }
+
+
+    /**
+     * Copy bytes to the output.
+     */
+    private void writeBytes(byte[] b) throws JSONException {
+        this.ensure(b.length);
+        System.arraycopy(b, 0, this.buf, this.count, b.length);
+        this.count += b.length;
+    }
+
+
+    private void object(JSONObject jo) throws JSONException {
+        byte[] text = this.canonical ? null : jo.cachedText();
+        if (text != null) {
+            this.writeBytes(text);
+        } else if (this.canonical) {
+            this.sortedMembers(jo);
+        } else {
+            this.members(jo);
+        }
+    }
+
+
+    private void sortedMembers(JSONObject jo) throws JSONException {
+        String[] keys = jo.sortedKeys();
+        this.write('{');
+        for (int i = 0; i < keys.length; i += 1) {
+            if (i > 0) {
+                this.write(',');
+            }
+            this.quote(keys[i]);
+            this.write(':');
+            this.value(jo.peek(keys[i]));
+        }
+        this.write('}');
+    }
+
+
+    private void members(JSONObject jo) throws JSONException {
+        this.write('{');
+        boolean commanate = false;
+        Iterator keys = jo.keys();
+        while (keys.hasNext()) {
+            String key = keys.next().toString();
+            if (commanate) {
+                this.write(',');
+            }
+            this.quote(key);
+            this.write(':');
+            this.value(jo.peek(key));
+            commanate = true;
+        }
+        this.write('}');
+    }
+
+
+    private void array(JSONArray ja) throws JSONException {
+        byte[] text = this.canonical ? null : ja.cachedText();
+        if (text != null) {
+            this.writeBytes(text);
+        } else {
+            this.elements(ja);
+        }
+    }
+
+
+    private void elements(JSONArray ja) throws JSONException {
+        ValueList list = ja.list();
+        int length = list.size();
+        int kind = list.kind();
+        this.write('[');
+        for (int i = 0; i < length; i += 1) {
+            if (i > 0) {
+                this.write(',');
+            }
+            switch (kind) {
+            case ValueList.ints:
+            case ValueList.longs:
+                this.value(list.longValue(i));
+                break;
+            case ValueList.doubles:
+                this.value(list.doubleValue(i));
+                break;
+            default:
+                this.value(list.get(i));
+            }
+        }
+        this.write(']');
+    }
+}
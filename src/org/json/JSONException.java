@@ -9,6 +9,11 @@ public class JSONException extends Exception {
     private static final long serialVersionUID = 0;
     private Throwable cause;
 
+    /**
+     * true if syntax errors should be made without stack traces.
+     */
+    private static volatile boolean stackless;
+
     /**
      * Constructs a JSONException with an explanatory message.
      * @param message Detail about the reason for the exception.
@@ -17,6 +22,13 @@ public class JSONException extends Exception {
         super(message);
     }
 
+    /**
+     * Constructs a JSONException that does not fill in its stack trace.
+     */
+    private JSONException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
     public JSONException(Throwable cause) {
         super(cause.getMessage());
         this.cause = cause;
@@ -25,4 +37,28 @@ public class JSONException extends Exception {
     public Throwable getCause() {
         return this.cause;
     }
+
+    /**
+     * Choose whether the syntax errors of the parsers are made with stack
+     * traces. Filling in a stack trace costs more than the rest of a failed
+     * parse, so code that routinely parses untrusted or malformed text can
+     * turn them off. The message still tells where in the text the error
+     * is. Stack traces are on by default.
+     * @param on true to make syntax errors without stack traces.
+     */
+    public static void setStackless(boolean on) {
+        stackless = on;
+    }
+
+    /**
+     * Make the JSONException for a syntax error, without a stack trace if
+     * setStackless(true) was called.
+     * @param message Detail about the reason for the exception.
+     * @return A JSONException.
+     */
+    static JSONException syntaxError(String message) {
+        return stackless
+            ? new JSONException(message, false)
+            : new JSONException(message);
+    }
 }
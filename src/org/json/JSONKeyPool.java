@@ -0,0 +1,254 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A JSONKeyPool is a bounded, thread-safe interning cache for key strings.
+ * Parsing many similar documents produces the same keys over and over; the
+ * pool lets all of those JSONObjects share a single String instance per key
+ * without permanently tying up memory the way <code>String.intern</code>
+ * does.
+ * <p>
+ * The pool is a two-way set-associative cache held in an
+ * <code>AtomicReferenceArray</code>, so lookups and insertions are lock-free.
+ * A hit in the second way promotes the key to the first way, and a miss
+ * pushes the first way down and evicts the second, which gives an
+ * approximate least-recently-used policy per set. Races between threads can
+ * at worst cause a key to be stored twice or evicted early; the string
+ * handed back is always equal to the string passed in.
+ * <p>
+ * Hit, miss and eviction counts are kept in <code>LongAdder</code>s so that
+ * the statistics can be read without contending with the parsing threads.
+ * <p>
+ * A pool can also be given to a JSONTokener to share string values, such
+ * as status words and names that are repeated across a large document. The
+ * tokener looks its characters up before making a String, so a repeated
+ * value costs no allocation at all.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public final class JSONKeyPool {
+
+    /**
+     * The number of slots in each set.
+     */
+    private static final int ways = 2;
+
+    /**
+     * The slots. Set <code>s</code> occupies slots <code>2s</code> and
+     * <code>2s + 1</code>, the first being the most recently used.
+     */
+    private final AtomicReferenceArray slots;
+
+    /**
+     * The mask used to pick a set from a hash code.
+     */
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Construct a key pool holding at most <code>capacity</code> keys. The
+     * capacity is rounded up to a power of two.
+     * @param capacity The maximum number of pooled keys.
+     */
+    public JSONKeyPool(int capacity) {
+        int sets = 1;
+        while (sets * ways < capacity) {
+            sets <<= 1;
+        }
+        this.mask = sets - 1;
+        this.slots = new AtomicReferenceArray(sets * ways);
+    }
+
+
+    /**
+     * Get the maximum number of keys the pool can hold.
+     * @return The capacity.
+     */
+    public int capacity() {
+        return this.slots.length();
+    }
+
+
+    /**
+     * Get the number of lookups that found the key already pooled.
+     * @return The hit count.
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+
+    /**
+     * Get the number of lookups that had to add the key to the pool.
+     * @return The miss count.
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+
+    /**
+     * Get the number of keys pushed out of the pool to make room.
+     * @return The eviction count.
+     */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+
+    /**
+     * Get the fraction of lookups that were hits.
+     * @return A value between 0 and 1, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long h = this.hits.sum();
+        long total = h + this.misses.sum();
+        return total == 0 ? 0 : (double)h / total;
+    }
+
+
+    /**
+     * Return a pooled instance equal to the key. If the key is not yet in
+     * the pool, it is added and returned as is.
+     * @param key A key string.
+     * @return A string equal to the key.
+     */
+    public String intern(String key) {
+        int h = key.hashCode();
+        int first = ((h ^ (h >>> 16)) & this.mask) * ways;
+        String pooled = (String)this.slots.get(first);
+        if (pooled != null && (pooled == key || pooled.equals(key))) {
+            this.hits.increment();
+            return pooled;
+        }
+        String second = (String)this.slots.get(first + 1);
+        if (second != null && (second == key || second.equals(key))) {
+            this.hits.increment();
+            if (pooled != null) {
+                this.slots.lazySet(first + 1, pooled);
+            }
+            this.slots.lazySet(first, second);
+            return second;
+        }
+        this.misses.increment();
+        if (pooled != null) {
+            if (second != null) {
+                this.evictions.increment();
+            }
+            this.slots.lazySet(first + 1, pooled);
+        }
+        this.slots.lazySet(first, key);
+        return key;
+    }
+
+
+    /**
+     * Return a pooled string made of a run of characters. A String is only
+     * made if no equal string is in the pool.
+     * @param chars The characters.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     * @param hash The hash code of the string, as
+     *  <code>String.hashCode</code> computes it.
+     * @return A string equal to the characters.
+     */
+    public String intern(char[] chars, int offset, int length, int hash) {
+        int first = ((hash ^ (hash >>> 16)) & this.mask) * ways;
+        String pooled = (String)this.slots.get(first);
+        if (matches(pooled, chars, offset, length)) {
+            this.hits.increment();
+            return pooled;
+        }
+        String second = (String)this.slots.get(first + 1);
+        if (matches(second, chars, offset, length)) {
+            this.hits.increment();
+            if (pooled != null) {
+                this.slots.lazySet(first + 1, pooled);
+            }
+            this.slots.lazySet(first, second);
+            return second;
+        }
+        this.misses.increment();
+        if (pooled != null) {
+            if (second != null) {
+                this.evictions.increment();
+            }
+            this.slots.lazySet(first + 1, pooled);
+        }
+        String string = new String(chars, offset, length);
+        this.slots.lazySet(first, string);
+        return string;
+    }
+
+
+    /**
+     * Determine if a pooled string is made of a run of characters.
+     */
+    private static boolean matches(String pooled, char[] chars, int offset,
+            int length) {
+        if (pooled == null || pooled.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i += 1) {
+            if (pooled.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Empty the pool and reset the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < this.slots.length(); i += 1) {
+            this.slots.set(i, null);
+        }
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+    }
+
+
+    /**
+     * Make a printable summary of the pool statistics.
+     * @return A string such as 
+     *  "JSONKeyPool[capacity=1024 hits=9 misses=1 evictions=0]".
+     */
+    public String toString() {
+        return "JSONKeyPool[capacity=" + this.capacity() + " hits=" +
+            this.hits() + " misses=" + this.misses() + " evictions=" +
+            this.evictions() + "]";
+    }
+}
@@ -0,0 +1,440 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * JSONLines reads and writes JSON Lines (also called NDJSON) files, in which
+ * each line is one JSON text, in parallel.
+ * <p>
+ * The reader splits a file into chunks of about four megabytes that end at
+ * line ends, and parses the chunks in a ForkJoinPool. Only a few chunks more
+ * than the pool has threads are read ahead, so a file of any size can be
+ * read. The objects come out of a Stream either in file order or in the
+ * order that the chunks finish.
+ * <p>
+ * The writer encodes batches of values in a ForkJoinPool, each into the
+ * JSONByteWriter of the thread that does it, and writes the batches to the
+ * stream in order.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public final class JSONLines {
+
+    /**
+     * The size in bytes at which the reader looks for the end of a chunk.
+     */
+    private static final int chunkSize = 1 << 22;
+
+    /**
+     * The number of values the writer puts in a batch.
+     */
+    private static final int batchSize = 512;
+
+
+    private JSONLines() {
+    }
+
+
+    /**
+     * Read a JSON Lines file, parsing its lines in the common ForkJoinPool.
+     * @param path The file.
+     * @param ordered true if the objects must come out in file order.
+     * @return A Stream of the objects. Close it to close the file. An error
+     *  reading the file is thrown from the Stream as an
+     *  UncheckedIOException, and a syntax error as a RuntimeException whose
+     *  cause is a JSONException.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Stream read(Path path, boolean ordered)
+            throws IOException {
+        return read(path, ordered, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Read a JSON Lines file, parsing its lines in a ForkJoinPool. Blank
+     * lines are skipped. Every other line must hold one JSON object.
+     * @param path The file.
+     * @param ordered true if the objects must come out in file order.
+     * @param pool The pool that parses the chunks.
+     * @return A Stream of the objects. Close it to close the file. An error
+     *  reading the file is thrown from the Stream as an
+     *  UncheckedIOException, and a syntax error as a RuntimeException whose
+     *  cause is a JSONException.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Stream read(Path path, boolean ordered,
+            ForkJoinPool pool) throws IOException {
+        Chunks chunks = new Chunks(
+            FileChannel.open(path, StandardOpenOption.READ), ordered, pool);
+        int characteristics = Spliterator.NONNULL;
+        if (ordered) {
+            characteristics |= Spliterator.ORDERED;
+        }
+        Stream stream = StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(chunks, characteristics),
+            false);
+        return (Stream)stream.onClose(chunks::close);
+    }
+
+
+    /**
+     * Write values as JSON Lines, encoding them in the common ForkJoinPool.
+     * @param values An Iterator of JSONObjects, JSONArrays, or any values
+     *  accepted by <code>JSONObject.valueToString</code>.
+     * @param out The stream. It is not flushed or closed.
+     * @throws JSONException If a value is or contains an invalid number, or
+     *  if the stream fails.
+     */
+    public static void write(Iterator values, OutputStream out)
+            throws JSONException {
+        write(values, out, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Write values as JSON Lines, encoding them in a ForkJoinPool. Each value
+     * is followed by a newline.
+     * @param values An Iterator of JSONObjects, JSONArrays, or any values
+     *  accepted by <code>JSONObject.valueToString</code>.
+     * @param out The stream. It is not flushed or closed.
+     * @param pool The pool that encodes the batches.
+     * @throws JSONException If a value is or contains an invalid number, or
+     *  if the stream fails.
+     */
+    public static void write(Iterator values, OutputStream out,
+            ForkJoinPool pool) throws JSONException {
+        ArrayDeque pending = new ArrayDeque();
+        int window = pool.getParallelism() * 2;
+        try {
+            while (values.hasNext() || !pending.isEmpty()) {
+                while (pending.size() < window && values.hasNext()) {
+                    Object[] batch = new Object[batchSize];
+                    int length = 0;
+                    while (length < batchSize && values.hasNext()) {
+                        batch[length] = values.next();
+                        length += 1;
+                    }
+                    Batch task = new Batch(batch, length);
+                    pool.execute(task);
+                    pending.add(task);
+                }
+                Batch batch = (Batch)pending.poll();
+                byte[] bytes = (byte[])batch.join();
+                if (batch.failure != null) {
+                    throw batch.failure;
+                }
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        } finally {
+            while (!pending.isEmpty()) {
+                ((ForkJoinTask)pending.poll()).cancel(false);
+            }
+        }
+    }
+
+
+    /**
+     * A Batch encodes some values as JSON Lines.
+     */
+    private static final class Batch extends RecursiveTask {
+        private static final long serialVersionUID = 0;
+
+        private final Object[] values;
+        private final int length;
+
+        /**
+         * The exception that stopped the batch, or null.
+         */
+        JSONException failure;
+
+        Batch(Object[] values, int length) {
+            this.values = values;
+            this.length = length;
+        }
+
+        protected Object compute() {
+            JSONByteWriter w = JSONByteWriter.acquire(null);
+            try {
+                for (int i = 0; i < this.length; i += 1) {
+                    w.value(this.values[i]);
+                    w.write('\n');
+                }
+                return w.toByteArray();
+            } catch (JSONException e) {
+                this.failure = e;
+                return null;
+            } finally {
+                JSONByteWriter.release(w);
+            }
+        }
+    }
+
+
+    /**
+     * A Chunk reads and parses the lines between two positions of a file.
+     */
+    private static final class Chunk extends RecursiveTask {
+        private static final long serialVersionUID = 0;
+
+        private final FileChannel channel;
+        private final long start;
+        private final int length;
+
+        /**
+         * The queue that the chunk is put on when it is done, or null.
+         */
+        private final LinkedBlockingQueue done;
+
+        /**
+         * The exception that stopped the chunk, or null. It is kept here
+         * rather than thrown, so that the reader can throw it as it is.
+         */
+        RuntimeException failure;
+
+        Chunk(FileChannel channel, long start, int length,
+                LinkedBlockingQueue done) {
+            this.channel = channel;
+            this.start = start;
+            this.length = length;
+            this.done = done;
+        }
+
+        protected Object compute() {
+            try {
+                return this.parse();
+            } catch (RuntimeException e) {
+                this.failure = e;
+                return null;
+            } finally {
+                if (this.done != null) {
+                    this.done.add(this);
+                }
+            }
+        }
+
+        private List parse() {
+            byte[] bytes = new byte[this.length];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (this.channel.read(buffer,
+                            this.start + buffer.position()) < 0) {
+                        throw new IOException("File truncated at " +
+                            (this.start + buffer.position()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            List objects = new ArrayList();
+            int i = 0;
+            while (i < this.length) {
+                int end = i;
+                while (end < this.length && bytes[end] != '\n') {
+                    end += 1;
+                }
+                String line = new String(bytes, i, end - i,
+                    StandardCharsets.UTF_8);
+                if (line.trim().length() > 0) {
+                    try {
+                        JSONTokener x = new JSONTokener(line);
+                        objects.add(new JSONObject(x));
+                        if (x.nextClean() != 0) {
+                            throw x.syntaxError("Expected the end of the line");
+                        }
+                    } catch (JSONException e) {
+                        throw new RuntimeException("JSON Lines syntax error " +
+                            "in the line at byte " + (this.start + i) + ": " +
+                            e.getMessage(), e);
+                    }
+                }
+                i = end + 1;
+            }
+            return objects;
+        }
+    }
+
+
+    /**
+     * Chunks finds the chunks of a file, keeps a window of them being parsed,
+     * and hands out their objects.
+     */
+    private static final class Chunks implements Iterator {
+        private final FileChannel channel;
+        private final ForkJoinPool pool;
+        private final int window;
+        private final ArrayDeque pending = new ArrayDeque();
+
+        /**
+         * The queue of finished chunks when the order does not matter, or
+         * null.
+         */
+        private final LinkedBlockingQueue done;
+
+        /**
+         * The objects of the chunk being handed out, and the index of the
+         * next one.
+         */
+        private List objects = new ArrayList();
+        private int next;
+
+        private final long size;
+        private long position;
+
+        Chunks(FileChannel channel, boolean ordered, ForkJoinPool pool)
+                throws IOException {
+            this.channel = channel;
+            this.pool = pool;
+            this.window = pool.getParallelism() * 2;
+            this.done = ordered ? null : new LinkedBlockingQueue();
+            this.size = channel.size();
+        }
+
+        /**
+         * Find the end of the chunk that starts at the current position: the
+         * first line end at or after chunkSize bytes, or the end of the file.
+         */
+        private long chunkEnd() throws IOException {
+            long end = this.position + chunkSize;
+            if (end >= this.size) {
+                return this.size;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            for (;;) {
+                buffer.clear();
+                int n = this.channel.read(buffer, end);
+                if (n <= 0) {
+                    return this.size;
+                }
+                for (int i = 0; i < n; i += 1) {
+                    if (buffer.get(i) == '\n') {
+                        return end + i + 1;
+                    }
+                }
+                end += n;
+            }
+        }
+
+        private void fill() {
+            try {
+                while (this.pending.size() < this.window &&
+                        this.position < this.size) {
+                    long end = this.chunkEnd();
+                    if (end - this.position > Integer.MAX_VALUE) {
+                        throw new IOException("Line too long at " +
+                            this.position);
+                    }
+                    Chunk chunk = new Chunk(this.channel, this.position,
+                        (int)(end - this.position), this.done);
+                    this.pool.execute(chunk);
+                    this.pending.add(chunk);
+                    this.position = end;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public boolean hasNext() {
+            while (this.next == this.objects.size()) {
+                this.fill();
+                if (this.pending.isEmpty()) {
+                    return false;
+                }
+                this.objects = this.take();
+                this.next = 0;
+            }
+            return true;
+        }
+
+        public Object next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object value = this.objects.get(this.next);
+            this.next += 1;
+            return value;
+        }
+
+        /**
+         * Wait for the next chunk and get its objects.
+         */
+        private List take() {
+            Chunk chunk;
+            if (this.done == null) {
+                chunk = (Chunk)this.pending.poll();
+            } else {
+                try {
+                    chunk = (Chunk)this.done.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted", e);
+                }
+                this.pending.remove(chunk);
+            }
+            List objects = (List)chunk.join();
+            if (chunk.failure != null) {
+                throw chunk.failure;
+            }
+            return objects;
+        }
+
+        void close() {
+            while (!this.pending.isEmpty()) {
+                ((Chunk)this.pending.poll()).cancel(false);
+            }
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
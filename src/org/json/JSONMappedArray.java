@@ -0,0 +1,277 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A JSONMappedArray iterates over the JSONObjects of a JSON array held in a
+ * file, however large, one at a time. The file is mapped into memory with
+ * FileChannel.map, a window of up to 256 megabytes at a time, and parsed
+ * straight from the mapped bytes, so only the current element is on the
+ * heap.
+ * <pre>
+ * JSONMappedArray elements = JSONMappedArray.open(path);
+ * try {
+ *     while (elements.hasNext()) {
+ *         JSONObject jo = elements.next();
+ *         ...
+ *     }
+ * } finally {
+ *     elements.close();
+ * }
+ * </pre>
+ * A syntax error is thrown from <code>hasNext</code> and <code>next</code>
+ * as a RuntimeException whose cause is the JSONException.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public final class JSONMappedArray implements Iterator<JSONObject>, Closeable {
+
+    /**
+     * The largest part of the file that is mapped at once.
+     */
+    private static final long windowSize = 1L << 28;
+
+    private final FileChannel channel;
+
+    private final JSONTokener x;
+
+    /**
+     * Whether the first element has been read.
+     */
+    private boolean started;
+
+    /**
+     * Whether the closing bracket has been read.
+     */
+    private boolean done;
+
+    /**
+     * The element read ahead by hasNext, or null.
+     */
+    private JSONObject next;
+
+
+    private JSONMappedArray(FileChannel channel) throws JSONException {
+        this.channel = channel;
+        this.x = new JSONTokener(new MappedReader(channel));
+        if (this.x.nextClean() != '[') {
+            throw this.x.syntaxError("A JSONArray text must start with '['");
+        }
+    }
+
+
+    /**
+     * Open a file that holds a JSON array of objects.
+     * @param path The file.
+     * @return A JSONMappedArray positioned before the first element.
+     * @throws IOException If the file cannot be opened or mapped.
+     * @throws JSONException If the file does not begin with '['.
+     */
+    public static JSONMappedArray open(Path path)
+            throws IOException, JSONException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new JSONMappedArray(channel);
+        } catch (JSONException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Read the next element, or the closing bracket. This follows the
+     * grammar of the JSONArray(JSONTokener) constructor, except that every
+     * element must be a JSONObject.
+     */
+    private void advance() throws JSONException {
+        char c = this.x.nextClean();
+        if (this.started) {
+            switch (c) {
+            case ';':
+            case ',':
+                c = this.x.nextClean();
+                break;
+            case ']':
+                this.done = true;
+                return;
+            default:
+                throw this.x.syntaxError("Expected a ',' or ']'");
+            }
+        }
+        this.started = true;
+        if (c == ']') {
+            this.done = true;
+            return;
+        }
+        this.x.back();
+        Object value = this.x.nextValue();
+        if (!(value instanceof JSONObject)) {
+            throw this.x.syntaxError("JSONArray element is not a JSONObject");
+        }
+        this.next = (JSONObject)value;
+    }
+
+
+    /**
+     * Determine if there is another element.
+     * @return true if there is another element.
+     */
+    public boolean hasNext() {
+        if (this.next == null && !this.done) {
+            try {
+                this.advance();
+            } catch (JSONException e) {
+                this.done = true;
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+        return this.next != null;
+    }
+
+
+    /**
+     * Get the next element. Only this element is kept; the ones before it
+     * can be garbage collected.
+     * @return The next JSONObject.
+     * @throws NoSuchElementException If the array has ended.
+     */
+    public JSONObject next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JSONObject jo = this.next;
+        this.next = null;
+        return jo;
+    }
+
+
+    /**
+     * Close the file.
+     * @throws IOException If the file cannot be closed.
+     */
+    public void close() throws IOException {
+        this.done = true;
+        this.next = null;
+        this.channel.close();
+    }
+
+
+    /**
+     * A MappedReader decodes UTF-8 from a file through a sliding window of
+     * mapped memory. A character whose bytes straddle the end of a window is
+     * decoded from the start of the next window, which is mapped from the
+     * first byte not yet decoded.
+     */
+    private static final class MappedReader extends Reader {
+        private final FileChannel channel;
+        private final long size;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private MappedByteBuffer window;
+        private long windowStart;
+        private boolean flushed;
+
+        MappedReader(FileChannel channel) throws JSONException {
+            this.channel = channel;
+            try {
+                this.size = channel.size();
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+        }
+
+        /**
+         * Map the window that starts at the first byte not yet decoded.
+         * @return false if the file has ended.
+         */
+        private boolean nextWindow() throws IOException {
+            long position = this.window == null
+                ? 0
+                : this.windowStart + this.window.position();
+            if (position >= this.size) {
+                return false;
+            }
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                position, Math.min(windowSize, this.size - position));
+            this.windowStart = position;
+            return true;
+        }
+
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (this.flushed) {
+                return -1;
+            }
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            for (;;) {
+                if (this.window != null) {
+                    boolean last =
+                        this.windowStart + this.window.limit() == this.size;
+                    this.decoder.decode(this.window, out, last);
+                    if (last && !this.window.hasRemaining() &&
+                            !this.flushed) {
+                        this.decoder.flush(out);
+                        this.flushed = true;
+                    }
+                    if (out.position() > off) {
+                        return out.position() - off;
+                    }
+                    if (last) {
+                        return -1;
+                    }
+                }
+                if (!this.nextWindow()) {
+                    return -1;
+                }
+            }
+        }
+
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
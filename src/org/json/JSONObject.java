@@ -25,14 +25,17 @@ SOFTWARE.
 */
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
@@ -97,15 +100,17 @@ public class JSONObject {
     /**
      * The maximum number of keys in the key pool.
      */
-     private static final int keyPoolSize = 100;
+     private static final int keyPoolSize = 1024;
 
    /**
      * Key pooling is like string interning, but without permanently tying up
      * memory. To help conserve memory, storage of duplicated key strings in
      * JSONObjects will be avoided by using a key pool to manage unique key
      * string objects. This is used by JSONObject.put(string, object).
+     * The pool is shared by all threads, so it must be safe to use
+     * concurrently.
      */
-     private static HashMap keyPool = new HashMap(keyPoolSize);
+     private static final JSONKeyPool keyPool = new JSONKeyPool(keyPoolSize);
 
     /**
      * JSONObject.NULL is equivalent to the value that JavaScript calls null,
@@ -144,11 +149,74 @@ public class JSONObject {
 
 
     /**
-     * The map where the JSONObject's properties are kept.
+     * The keys of a JSONObject. Removing a key, through the set or through
+     * its iterator, removes the member the way <code>remove</code> does, so
+     * that cached text and sorted keys are dropped.
+     */
+    private final class KeySet extends AbstractSet {
+
+        public Iterator iterator() {
+            final Iterator keys = JSONObject.this.map.keySet().iterator();
+            return new Iterator() {
+                private Object last;
+
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
+
+                public Object next() {
+                    this.last = keys.next();
+                    return this.last;
+                }
+
+                public void remove() {
+                    Object value = JSONObject.this.map.get(this.last);
+                    keys.remove();
+                    JSONObject.this.removed(value);
+                }
+            };
+        }
+
+        public int size() {
+            return JSONObject.this.map.size();
+        }
+
+        public boolean contains(Object key) {
+            return JSONObject.this.map.containsKey(key);
+        }
+
+        public boolean remove(Object key) {
+            if (!JSONObject.this.map.containsKey(key)) {
+                return false;
+            }
+            JSONObject.this.remove((String)key);
+            return true;
+        }
+    }
+
+
+    /**
+     * The map where the JSONObject's properties are kept. It is a SmallMap,
+     * which keeps the few members of a typical object in plain arrays and
+     * preserves their insertion order.
      */
     private final Map map;
 
 
+    /**
+     * The cache of this object's compact text, or null if neither this
+     * object nor a cached container that holds it has asked for one.
+     */
+    private TextCache cache;
+
+
+    /**
+     * The keys in sorted order, kept for canonical output until a key is
+     * added or removed, or null.
+     */
+    private volatile String[] sortedKeys;
+
+
     /**
      * It is sometimes more convenient and less ambiguous to have a
      * <code>NULL</code> object than to use Java's <code>null</code> value.
@@ -162,7 +230,27 @@ public class JSONObject {
      * Construct an empty JSONObject.
      */
     public JSONObject() {
-        this.map = new HashMap();
+        this.map = new SmallMap();
+    }
+
+
+    /**
+     * Construct a JSONObject around a map that is already filled.
+     * @param map A SmallMap.
+     */
+    JSONObject(SmallMap map) {
+        this.map = map;
+    }
+
+
+    /**
+     * Empty this JSONObject so that a JSONParseContext can fill it again,
+     * keeping the arrays that hold its members.
+     */
+    void recycle() {
+        this.map.clear();
+        this.cache = null;
+        this.sortedKeys = null;
     }
 
 
@@ -194,6 +282,18 @@ public class JSONObject {
      */
     public JSONObject(JSONTokener x) throws JSONException {
         this();
+        this.read(x);
+    }
+
+
+    /**
+     * Read the members of an object from a JSONTokener into this empty
+     * JSONObject.
+     * @param x A JSONTokener positioned before the opening brace.
+     * @throws JSONException If there is a syntax error in the source string
+     *  or a duplicated key.
+     */
+    void read(JSONTokener x) throws JSONException {
         char c;
         String key;
 
@@ -251,7 +351,7 @@ public class JSONObject {
      * @throws JSONException
      */
     public JSONObject(Map map) {
-        this.map = new HashMap();
+        this.map = new SmallMap();
         if (map != null) {
             Iterator i = map.entrySet().iterator();
             while (i.hasNext()) {
@@ -303,12 +403,15 @@ public class JSONObject {
      */
     public JSONObject(Object object, String names[]) {
         this();
-        Class c = object.getClass();
+        BeanInfo info = BeanInfo.of(object.getClass());
         for (int i = 0; i < names.length; i += 1) {
             String name = names[i];
-            try {
-                this.putOpt(name, c.getField(name).get(object));
-            } catch (Exception ignore) {
+            MethodHandle field = info.field(name);
+            if (field != null) {
+                try {
+                    this.putOpt(name, field.invoke(object));
+                } catch (Throwable ignore) {
+                }
             }
         }
     }
@@ -328,6 +431,29 @@ public class JSONObject {
     }
 
 
+    /**
+     * Parse a JSONObject lazily from a source JSON text string. The whole text
+     * is scanned once to check its syntax and to find where each value lies,
+     * but a value is only decoded when it is first read with one of the
+     * <code>opt</code> or <code>get</code> methods. Nested objects and arrays
+     * are parsed lazily in the same way. A value that is never read is
+     * written out again exactly as it appeared in the source.
+     * <p>
+     * Unlike the JSONObject(String) constructor, this accepts standard JSON
+     * only. Reading a value replaces it in the object, so a lazily parsed
+     * JSONObject must not be read by several threads at once.
+     * @param source    A string beginning
+     *  with <code>{</code>&nbsp;<small>(left brace)</small> and ending
+     *  with <code>}</code>&nbsp;<small>(right brace)</small>.
+     * @return A JSONObject.
+     * @exception JSONException If there is a syntax error in the source
+     *  string or a duplicated key.
+     */
+    public static JSONObject parseLazy(String source) throws JSONException {
+        return new LazyScanner(source).object();
+    }
+
+
     /**
      * Construct a JSONObject from a ResourceBundle.
      * @param baseName The ResourceBundle base name.
@@ -431,7 +557,8 @@ public class JSONObject {
 
     /**
      * Produce a string from a double. The string "null" will be returned if
-     * the number is not finite.
+     * the number is not finite. The string has the fewest digits that read
+     * back as the same double.
      * @param  d A double.
      * @return A String.
      */
@@ -439,20 +566,9 @@ public class JSONObject {
         if (Double.isInfinite(d) || Double.isNaN(d)) {
             return "null";
         }
-
-// Shave off trailing zeros and decimal point, if possible.
-
-        String string = Double.toString(d);
-        if (string.indexOf('.') > 0 && string.indexOf('e') < 0 &&
-                string.indexOf('E') < 0) {
-            while (string.endsWith("0")) {
-                string = string.substring(0, string.length() - 1);
-            }
-            if (string.endsWith(".")) {
-                string = string.substring(0, string.length() - 1);
-            }
-        }
-        return string;
+        byte[] b = new byte[DoubleFormat.MAX_LENGTH];
+        int length = DoubleFormat.write(d, b, 0, false);
+        return new String(b, 0, length, StandardCharsets.ISO_8859_1);
     }
 
 
@@ -598,6 +714,17 @@ public class JSONObject {
     }
 
 
+    /**
+     * Get the pool that is used to share key strings between JSONObjects.
+     * Its statistics show how well keys are being deduplicated.
+     *
+     * @return The key pool.
+     */
+    public static JSONKeyPool getKeyPool() {
+        return keyPool;
+    }
+
+
     /**
      * Get an array of field names from a JSONObject.
      *
@@ -725,7 +852,7 @@ public class JSONObject {
      * @return A keySet.
      */
     public Set keySet() {
-        return this.map.keySet();
+        return new KeySet();
     }
 
 
@@ -766,6 +893,12 @@ public class JSONObject {
             throw new JSONException("Null pointer");
         }
         testValidity(number);
+        if (number instanceof Double) {
+            return doubleToString(number.doubleValue());
+        }
+        if (number instanceof Integer || number instanceof Long) {
+            return number.toString();
+        }
 
 // Shave off trailing zeros and decimal point, if possible.
 
@@ -789,7 +922,29 @@ public class JSONObject {
      * @return      An object which is the value, or null if there is no value.
      */
     public Object opt(String key) {
-        return key == null ? null : this.map.get(key);
+        if (key == null) {
+            return null;
+        }
+        Object value = this.map.get(key);
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+            this.map.put(key, value);
+            if (this.cache != null) {
+                TextCache.watchChild(this.cache, value);
+            }
+        }
+        return value;
+    }
+
+
+    /**
+     * Get the value associated with a key without decoding it if it has not
+     * been read yet.
+     * @param key   A key string.
+     * @return      The value, which may be a LazyValue, or null.
+     */
+    Object peek(String key) {
+        return this.map.get(key);
     }
 
 
@@ -816,11 +971,7 @@ public class JSONObject {
      * @return      The truth.
      */
     public boolean optBoolean(String key, boolean defaultValue) {
-        try {
-            return this.getBoolean(key);
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        return toBoolean(this.opt(key), defaultValue);
     }
 
 
@@ -849,11 +1000,17 @@ public class JSONObject {
      * @return      An object which is the value.
      */
     public double optDouble(String key, double defaultValue) {
-        try {
-            return this.getDouble(key);
-        } catch (Exception e) {
-            return defaultValue;
+        Object object = this.opt(key);
+        if (object instanceof Number) {
+            return ((Number)object).doubleValue();
+        }
+        if (object instanceof String) {
+            try {
+                return Double.parseDouble((String)object);
+            } catch (NumberFormatException e) {
+            }
         }
+        return defaultValue;
     }
 
 
@@ -882,11 +1039,17 @@ public class JSONObject {
      * @return      An object which is the value.
      */
     public int optInt(String key, int defaultValue) {
-        try {
-            return this.getInt(key);
-        } catch (Exception e) {
-            return defaultValue;
+        Object object = this.opt(key);
+        if (object instanceof Number) {
+            return ((Number)object).intValue();
         }
+        if (object instanceof String) {
+            try {
+                return Integer.parseInt((String)object);
+            } catch (NumberFormatException e) {
+            }
+        }
+        return defaultValue;
     }
 
 
@@ -943,11 +1106,17 @@ public class JSONObject {
      * @return             An object which is the value.
      */
     public long optLong(String key, long defaultValue) {
-        try {
-            return this.getLong(key);
-        } catch (Exception e) {
-            return defaultValue;
+        Object object = this.opt(key);
+        if (object instanceof Number) {
+            return ((Number)object).longValue();
+        }
+        if (object instanceof String) {
+            try {
+                return Long.parseLong((String)object);
+            } catch (NumberFormatException e) {
+            }
         }
+        return defaultValue;
     }
 
 
@@ -978,51 +1147,123 @@ public class JSONObject {
     }
 
 
-    private void populateMap(Object bean) {
-        Class klass = bean.getClass();
-
-// If klass is a System class then set includeSuperClass to false.
+    /**
+     * Convert a value to a boolean the way getBoolean does.
+     * @param object A value, or null.
+     * @param defaultValue The result if the value is not a Boolean or the
+     *  String "true" or "false" (case insensitive).
+     * @return The truth.
+     */
+    static boolean toBoolean(Object object, boolean defaultValue) {
+        if (object instanceof Boolean) {
+            return ((Boolean)object).booleanValue();
+        }
+        if (object instanceof String) {
+            String string = (String)object;
+            if (string.equalsIgnoreCase("true")) {
+                return true;
+            }
+            if (string.equalsIgnoreCase("false")) {
+                return false;
+            }
+        }
+        return defaultValue;
+    }
 
-        boolean includeSuperClass = klass.getClassLoader() != null;
 
-        Method[] methods = includeSuperClass
-                ? klass.getMethods()
-                : klass.getDeclaredMethods();
-        for (int i = 0; i < methods.length; i += 1) {
-            try {
-                Method method = methods[i];
-                if (Modifier.isPublic(method.getModifiers())) {
-                    String name = method.getName();
-                    String key = "";
-                    if (name.startsWith("get")) {
-                        if ("getClass".equals(name) ||
-                                "getDeclaringClass".equals(name)) {
-                            key = "";
-                        } else {
-                            key = name.substring(3);
-                        }
-                    } else if (name.startsWith("is")) {
-                        key = name.substring(2);
-                    }
-                    if (key.length() > 0 &&
-                            Character.isUpperCase(key.charAt(0)) &&
-                            method.getParameterTypes().length == 0) {
-                        if (key.length() == 1) {
-                            key = key.toLowerCase();
-                        } else if (!Character.isUpperCase(key.charAt(1))) {
-                            key = key.substring(0, 1).toLowerCase() +
-                                key.substring(1);
-                        }
-
-                        Object result = method.invoke(bean, (Object[])null);
-                        if (result != null) {
-                            this.map.put(key, wrap(result));
-                        }
-                    }
-                }
-            } catch (Exception ignore) {
+    /**
+     * Get the type of a value without decoding it.
+     * @param value A value, or null.
+     * @return One of the type constants of JSONTape.
+     */
+    static int typeOfValue(Object value) {
+        if (value == null) {
+            return JSONTape.MISSING;
+        }
+        if (value instanceof RawValue) {
+            RawValue raw = (RawValue)value;
+            switch (raw.source.charAt(raw.start)) {
+            case '{':
+                return JSONTape.OBJECT;
+            case '[':
+                return JSONTape.ARRAY;
+            case '"':
+                return JSONTape.STRING;
+            case 't':
+            case 'f':
+                return JSONTape.BOOLEAN;
+            case 'n':
+                return JSONTape.NULL;
+            default:
+                return JSONTape.NUMBER;
             }
         }
+        if (value instanceof JSONObject || value instanceof Map) {
+            return JSONTape.OBJECT;
+        }
+        if (value instanceof JSONArray || value instanceof Collection ||
+                value.getClass().isArray()) {
+            return JSONTape.ARRAY;
+        }
+        if (value instanceof Number) {
+            return JSONTape.NUMBER;
+        }
+        if (value instanceof Boolean) {
+            return JSONTape.BOOLEAN;
+        }
+        if (NULL.equals(value)) {
+            return JSONTape.NULL;
+        }
+        return JSONTape.STRING;
+    }
+
+
+    /**
+     * Get the type of the value associated with a key. This never throws,
+     * and it does not decode a value of a lazily parsed object, so it is a
+     * cheap way to decide which getter to call.
+     *
+     * @param key   A key string.
+     * @return      JSONTape.OBJECT, ARRAY, STRING, NUMBER, BOOLEAN or NULL,
+     *  or JSONTape.MISSING if there is no such key.
+     */
+    public int typeOf(String key) {
+        return key == null ? JSONTape.MISSING : typeOfValue(this.map.get(key));
+    }
+
+
+    /**
+     * Get the number associated with a key, if it is a number. Unlike
+     * optDouble, optInt and optLong, this does not convert strings, and it
+     * tells a missing number from a zero.
+     *
+     * @param key   A key string.
+     * @return      The Number, or null if the value is missing or is not a
+     *  number.
+     */
+    public Number tryGetNumber(String key) {
+        Object object = this.opt(key);
+        return object instanceof Number ? (Number)object : null;
+    }
+
+
+    /**
+     * Get the string associated with a key, if it is a string. Unlike
+     * getString, this never throws, and unlike optString, it does not
+     * convert other values to strings.
+     *
+     * @param key   A key string.
+     * @return      The string, or null if the value is missing or is not a
+     *  string.
+     */
+    public String tryGetString(String key) {
+        Object object = this.opt(key);
+        return object instanceof String ? (String)object : null;
+    }
+
+
+    private void populateMap(Object bean) {
+        BeanInfo.of(bean.getClass()).populate(bean, this.map);
     }
 
 
@@ -1122,22 +1363,21 @@ public class JSONObject {
      *  or if the key is null.
      */
     public JSONObject put(String key, Object value) throws JSONException {
-        String pooled;
         if (key == null) {
             throw new JSONException("Null key.");
         }
         if (value != null) {
             testValidity(value);
-            pooled = (String)keyPool.get(key);
-            if (pooled == null) {
-                if (keyPool.size() >= keyPoolSize) {
-                    keyPool = new HashMap(keyPoolSize);
+            Object old = this.map.put(keyPool.intern(key), value);
+            if (old == null && this.sortedKeys != null) {
+                this.sortedKeys = null;
+            }
+            if (this.cache != null) {
+                this.cache.changed();
+                if (old != null) {
+                    TextCache.unwatchChild(this.cache, this, old);
                 }
-                keyPool.put(key, key);
-            } else {
-                key = pooled;
             }
-            this.map.put(key, value);
         } else {
             this.remove(key);
         }
@@ -1183,6 +1423,55 @@ public class JSONObject {
     }
 
 
+    /**
+     * The hexadecimal digits used in unicode escapes.
+     */
+    static final char[] hex = "0123456789abcdef".toCharArray();
+
+    /**
+     * The escape sequence for each ASCII character that cannot appear as is
+     * in a quoted string, or null for the characters that can.
+     */
+    static final String[] escapes = new String[128];
+
+    static {
+        for (int c = 0; c < ' '; c += 1) {
+            escapes[c] = "\\u00" + hex[c >> 4] + hex[c & 0xf];
+        }
+        escapes['\b'] = "\\b";
+        escapes['\t'] = "\\t";
+        escapes['\n'] = "\\n";
+        escapes['\f'] = "\\f";
+        escapes['\r'] = "\\r";
+        escapes['"'] = "\\\"";
+        escapes['\\'] = "\\\\";
+    }
+
+
+    /**
+     * Find the first character of a string that has to be escaped.
+     * @param string A String.
+     * @param from The index to start at.
+     * @return The index, or the length of the string if there is none.
+     */
+    private static int escapeIndex(String string, int from) {
+        int len = string.length();
+        for (int i = from; i < len; i += 1) {
+            char c = string.charAt(i);
+            if (c < 128) {
+                if (escapes[c] != null ||
+                        (c == '/' && i > 0 && string.charAt(i - 1) == '<')) {
+                    return i;
+                }
+            } else if ((c >= '\u0080' && c < '\u00a0') ||
+                    (c >= '\u2000' && c < '\u2100')) {
+                return i;
+            }
+        }
+        return len;
+    }
+
+
     /**
      * Produce a string in double quotes with backslash sequences in all the
      * right places. A backslash will be inserted within </, producing <\/,
@@ -1192,71 +1481,65 @@ public class JSONObject {
      * @return  A String correctly formatted for insertion in a JSON text.
      */
     public static String quote(String string) {
-        StringWriter sw = new StringWriter();
-        synchronized (sw.getBuffer()) {
-            try {
-                return quote(string, sw).toString();
-            } catch (IOException ignored) {
-                // will never happen - we are writing to a string writer
-                return "";
-            }
+        if (string == null || string.length() == 0) {
+            return "\"\"";
+        }
+        int len = string.length();
+        if (escapeIndex(string, 0) == len) {
+            return "\"" + string + "\"";
+        }
+        StringBuilderWriter w = new StringBuilderWriter(len + 16);
+        try {
+            return quote(string, w).toString();
+        } catch (IOException ignored) {
+            // will never happen - we are writing to a string builder
+            return "";
         }
     }
 
+    /**
+     * Write a string in double quotes with backslash sequences in all the
+     * right places. Runs of characters that need no escaping are written
+     * with a single call.
+     * @param string A String
+     * @param w The writer.
+     * @return The writer.
+     * @throws IOException
+     */
     public static Writer quote(String string, Writer w) throws IOException {
         if (string == null || string.length() == 0) {
             w.write("\"\"");
             return w;
         }
 
-        char b;
-        char c = 0;
-        String hhhh;
-        int i;
         int len = string.length();
+        int run = 0;
+        int i = escapeIndex(string, 0);
 
         w.write('"');
-        for (i = 0; i < len; i += 1) {
-            b = c;
-            c = string.charAt(i);
-            switch (c) {
-            case '\\':
-            case '"':
+        while (i < len) {
+            if (i > run) {
+                w.write(string, run, i - run);
+            }
+            char c = string.charAt(i);
+            if (c < 128 && escapes[c] != null) {
+                w.write(escapes[c]);
+            } else if (c == '/') {
                 w.write('\\');
-                w.write(c);
-                break;
-            case '/':
-                if (b == '<') {
-                    w.write('\\');
-                }
-                w.write(c);
-                break;
-            case '\b':
-                w.write("\\b");
-                break;
-            case '\t':
-                w.write("\\t");
-                break;
-            case '\n':
-                w.write("\\n");
-                break;
-            case '\f':
-                w.write("\\f");
-                break;
-            case '\r':
-                w.write("\\r");
-                break;
-            default:
-                if (c < ' ' || (c >= '\u0080' && c < '\u00a0')
-                        || (c >= '\u2000' && c < '\u2100')) {
-                    w.write("\\u");
-                    hhhh = Integer.toHexString(c);
-                    w.write("0000", 0, 4 - hhhh.length());
-                    w.write(hhhh);
-                } else {
-                    w.write(c);
-                }
+                w.write('/');
+            } else {
+                w.write('\\');
+                w.write('u');
+                w.write(hex[c >> 12]);
+                w.write(hex[(c >> 8) & 0xf]);
+                w.write(hex[(c >> 4) & 0xf]);
+                w.write(hex[c & 0xf]);
             }
+            run = i + 1;
+            i = escapeIndex(string, run);
+        }
+        if (len > run) {
+            w.write(string, run, len - run);
         }
         w.write('"');
         return w;
@@ -1269,7 +1552,356 @@ public class JSONObject {
      * or null if there was no value.
      */
     public Object remove(String key) {
-        return this.map.remove(key);
+        Object value = this.map.remove(key);
+        this.removed(value);
+        return value instanceof LazyValue
+            ? ((LazyValue)value).value()
+            : value;
+    }
+
+
+    /**
+     * Note that a member has been removed: drop the text and the sorted
+     * keys, and stop watching the value.
+     * @param value The value of the member that was removed.
+     */
+    private void removed(Object value) {
+        if (this.cache != null) {
+            this.cache.changed();
+            if (value != null) {
+                TextCache.unwatchChild(this.cache, this, value);
+            }
+        }
+        this.sortedKeys = null;
+    }
+
+
+    /**
+     * Keep the compact text of this JSONObject once it has been made, so
+     * that <code>toString()</code>, <code>toByteArray()</code> and the
+     * writers can reuse it until the object changes. A <code>put</code> or
+     * <code>remove</code> on this object, or on any JSONObject or JSONArray
+     * inside it, drops the text. This is for objects such as message
+     * templates that are serialized far more often than they are changed.
+     * <p>
+     * The text is kept as UTF-8, so <code>toString()</code> still decodes
+     * it into a new String each time.
+     *
+     * @param cached true to keep the text, false to drop it.
+     */
+    public void setTextCached(boolean cached) {
+        TextCache cache = this.textCache();
+        cache.enabled = cached;
+        cache.text = null;
+    }
+
+
+    /**
+     * Get the cache that tracks changes to this object, making it if there
+     * is none.
+     * @return The cache.
+     */
+    TextCache textCache() {
+        if (this.cache == null) {
+            this.cache = new TextCache();
+        }
+        return this.cache;
+    }
+
+
+    /**
+     * Get the cached compact text of this object, making it if it has
+     * changed.
+     * @return The UTF-8 text, or null if the object does not keep its text.
+     * @throws JSONException If the object contains an invalid number.
+     */
+    byte[] cachedText() throws JSONException {
+        TextCache cache = this.cache;
+        return cache != null && cache.enabled ? cache.text(this) : null;
+    }
+
+
+    /**
+     * Get the keys in the order that canonical output writes them. The
+     * sorted keys are kept, so that an object that is written in canonical
+     * form again and again is only sorted once.
+     * @return The keys, sorted by <code>String.compareTo</code>. The array
+     *  must not be changed.
+     */
+    String[] sortedKeys() {
+        String[] keys = this.sortedKeys;
+        if (keys == null || keys.length != this.length()) {
+            keys = new String[this.length()];
+            Iterator iterator = this.keys();
+            for (int i = 0; i < keys.length; i += 1) {
+                keys[i] = iterator.next().toString();
+            }
+            Arrays.sort(keys);
+            this.sortedKeys = keys;
+        }
+        return keys;
+    }
+
+
+    /**
+     * Make the canonical JSON text of this JSONObject, encoded as UTF-8.
+     * The members are sorted by key and the numbers and strings are written
+     * in one fixed way, so objects that are <code>equals</code> give the
+     * same bytes, whatever order their members were put in. This makes the
+     * text suitable for comparing, for content-addressed storage and for
+     * ETags. See <code>JSONByteWriter.setCanonical</code>.
+     *
+     * @return The bytes of the canonical JSON text.
+     * @throws JSONException If the object contains an invalid number.
+     */
+    public byte[] toCanonicalByteArray() throws JSONException {
+        return JSONByteWriter.toCanonicalByteArray(this);
+    }
+
+
+    /**
+     * Make a deeply immutable copy of this JSONObject. Every JSONObject and
+     * JSONArray inside it is frozen too, and the values of a lazily parsed
+     * object are decoded. The copy is built entirely in its constructor and
+     * held through final fields, so once it is made it can be shared with
+     * any number of threads without copying or locking, even if it is
+     * published without synchronization. Its <code>put</code> and
+     * <code>remove</code> methods throw UnsupportedOperationException.
+     * <p>
+     * Values that are not JSON values, such as beans and JSONString
+     * objects, are shared rather than copied, and are only as immutable as
+     * they are.
+     *
+     * @return A frozen JSONObject, or this if this is already frozen.
+     * @throws JSONException If a lazily parsed value cannot be decoded.
+     */
+    public JSONObject freeze() throws JSONException {
+        return this.freeze(false);
+    }
+
+
+    /**
+     * Make a deeply immutable copy of this JSONObject, as
+     * <code>freeze()</code> does, and optionally make its compact text up
+     * front so that it is written out by copying bytes.
+     *
+     * @param cacheText true to keep the compact UTF-8 text of the copy.
+     * @return A frozen JSONObject, or this if this is already frozen and
+     *  has its text if that was asked for.
+     * @throws JSONException If a value cannot be decoded, or if the object
+     *  contains an invalid number.
+     */
+    public JSONObject freeze(boolean cacheText) throws JSONException {
+        return new FrozenJSONObject(this, cacheText);
+    }
+
+
+    /**
+     * Determine if this JSONObject is frozen.
+     * @return true if this was made by <code>freeze</code>.
+     */
+    public boolean isFrozen() {
+        return false;
+    }
+
+
+    /**
+     * Make a frozen copy of a value for a frozen container.
+     * @param value A value.
+     * @return The value itself if it is immutable, or a frozen copy.
+     * @throws JSONException If a lazily parsed value cannot be decoded.
+     */
+    static Object freezeValue(Object value) throws JSONException {
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        if (value instanceof JSONObject) {
+            return ((JSONObject)value).freeze();
+        }
+        if (value instanceof JSONArray) {
+            return ((JSONArray)value).freeze();
+        }
+        if (value instanceof Map) {
+            return new JSONObject((Map)value).freeze();
+        }
+        if (value instanceof Collection) {
+            return new JSONArray((Collection)value).freeze();
+        }
+        if (value != null && value.getClass().isArray() &&
+                !(value instanceof byte[])) {
+            return new JSONArray(value).freeze();
+        }
+        return value;
+    }
+
+
+    /**
+     * Determine if another object is a JSONObject with the same members.
+     * The order of the members does not matter. Values are compared as
+     * JSON values: nested objects and arrays by their contents, and numbers
+     * by value, so that <code>1</code>, <code>1L</code> and
+     * <code>1.0</code> are the same.
+     *
+     * @param other The object to compare with.
+     * @return true if the other object is a JSONObject with equal members.
+     */
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof JSONObject)) {
+            return false;
+        }
+        JSONObject jo = (JSONObject)other;
+        if (this.length() != jo.length() ||
+                this.isFrozen() && jo.isFrozen() &&
+                this.hashCode() != jo.hashCode()) {
+            return false;
+        }
+        Iterator keys = this.keys();
+        while (keys.hasNext()) {
+            Object key = keys.next();
+            Object value = jo.map.get(key);
+            if (value == null || !valuesEqual(this.map.get(key), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Compute a hash of the members of this JSONObject, consistent with
+     * <code>equals</code>. Since a JSONObject can change, it should not be
+     * changed while it is a key in a hash table; a frozen JSONObject can be
+     * used safely, and computes its hash only once.
+     *
+     * @return The hash.
+     */
+    public int hashCode() {
+        return this.hashMembers();
+    }
+
+
+    /**
+     * Compute a 64-bit fingerprint of the contents of this JSONObject with
+     * XXH64. Objects that are <code>equals</code> have the same
+     * fingerprint, whatever the order of their members, and different
+     * contents give different fingerprints with very high probability. The
+     * fingerprint is computed by walking the object with its keys sorted,
+     * without making a canonical text, so it is a cheap key for caches and
+     * for finding duplicate payloads.
+     *
+     * @return The fingerprint.
+     */
+    public long fingerprint() {
+        return Fingerprint.of(this);
+    }
+
+
+    /**
+     * Determine if two values are the same JSON value, as
+     * <code>equals</code> compares members.
+     * @param a A value.
+     * @param b Another value.
+     * @return true if they are equal.
+     */
+    static boolean valuesEqual(Object a, Object b) {
+        if (a instanceof LazyValue) {
+            a = ((LazyValue)a).value();
+        }
+        if (b instanceof LazyValue) {
+            b = ((LazyValue)b).value();
+        }
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        if (a instanceof Number && b instanceof Number) {
+            Number x = (Number)a;
+            Number y = (Number)b;
+            boolean whole = isWhole(x);
+            if (whole != isWhole(y)) {
+                return false;
+            }
+            return whole
+                ? x.longValue() == y.longValue()
+                : x.doubleValue() == y.doubleValue();
+        }
+        return a.equals(b);
+    }
+
+
+    /**
+     * Compute a hash of this object's members that does not depend on
+     * their order, so that objects with the same members have the same
+     * hash.
+     * @return The hash.
+     */
+    int hashMembers() {
+        int h = 0;
+        Iterator keys = this.keys();
+        while (keys.hasNext()) {
+            Object key = keys.next();
+            h += key.hashCode() ^ hashOf(this.map.get(key));
+        }
+        return h;
+    }
+
+
+    /**
+     * Compute a hash of a value such that values that are the same JSON
+     * value have the same hash. Numbers hash by value rather than by type:
+     * a number that is a whole number that fits in a long hashes as that
+     * long, and any other number hashes as its double value.
+     * @param value A value, or null.
+     * @return The hash.
+     */
+    static int hashOf(Object value) {
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        if (value == null || NULL.equals(value)) {
+            return 0;
+        }
+        if (value instanceof JSONObject) {
+            return ((JSONObject)value).hashMembers();
+        }
+        if (value instanceof JSONArray) {
+            return ((JSONArray)value).hashElements();
+        }
+        if (value instanceof Number) {
+            Number number = (Number)value;
+            return isWhole(number)
+                ? Long.hashCode(number.longValue())
+                : Double.hashCode(number.doubleValue());
+        }
+        return value.hashCode();
+    }
+
+
+    /**
+     * Determine if a number is a whole number that a long holds exactly.
+     * @param number A number.
+     * @return true if <code>longValue()</code> is the exact value.
+     */
+    static boolean isWhole(Number number) {
+        if (number instanceof Integer || number instanceof Long ||
+                number instanceof Short || number instanceof Byte) {
+            return true;
+        }
+        if (number instanceof BigInteger) {
+            return ((BigInteger)number).bitLength() < 64;
+        }
+        if (number instanceof BigDecimal) {
+            BigDecimal d = (BigDecimal)number;
+            return d.signum() == 0 || d.stripTrailingZeros().scale() <= 0 &&
+                d.toBigInteger().bitLength() < 64;
+        }
+        double d = number.doubleValue();
+        return d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63;
     }
 
     /**
@@ -1400,10 +2032,38 @@ public class JSONObject {
      * @throws JSONException If the object contains an invalid number.
      */
     public String toString(int indentFactor) throws JSONException {
-        StringWriter w = new StringWriter();
-        synchronized (w.getBuffer()) {
-            return this.write(w, indentFactor, 0).toString();
+        byte[] text = indentFactor == 0 ? this.cachedText() : null;
+        if (text != null) {
+            return new String(text, StandardCharsets.UTF_8);
         }
+        return this.write(new StringBuilderWriter(64), indentFactor, 0)
+            .toString();
+    }
+
+
+    /**
+     * Make a JSON text of this JSONObject, encoded as UTF-8. The bytes are
+     * the same as those of <code>toString().getBytes("UTF-8")</code>, but
+     * they are produced without the intermediate String.
+     *
+     * @return The bytes of the JSON text.
+     * @throws JSONException If the object contains an invalid number.
+     */
+    public byte[] toByteArray() throws JSONException {
+        return JSONByteWriter.toByteArray(this);
+    }
+
+
+    /**
+     * Write the contents of the JSONObject as UTF-8 JSON text to a stream.
+     * For compactness, no whitespace is added.
+     *
+     * @param out The stream. It is not flushed or closed.
+     * @throws JSONException If the object contains an invalid number or if
+     *  the stream fails.
+     */
+    public void write(OutputStream out) throws JSONException {
+        JSONByteWriter.write(this, out);
     }
 
     /**
@@ -1498,15 +2158,7 @@ public class JSONObject {
              if (object instanceof Map) {
                  return new JSONObject((Map)object);
              }
-             Package objectPackage = object.getClass().getPackage();
-             String objectPackageName = objectPackage != null
-                 ? objectPackage.getName()
-                 : "";
-             if (
-                 objectPackageName.startsWith("java.") ||
-                 objectPackageName.startsWith("javax.") ||
-                 object.getClass().getClassLoader() == null
-             ) {
+             if (BeanInfo.of(object.getClass()).isSystem) {
                  return object.toString();
              }
              return new JSONObject(object);
@@ -1549,6 +2201,13 @@ public class JSONObject {
             writer.write(numberToString((Number) value));
         } else if (value instanceof Boolean) {
             writer.write(value.toString());
+        } else if (value instanceof RawValue) {
+            RawValue raw = (RawValue) value;
+            if (indentFactor > 0 && raw.isContainer()) {
+                writeValue(writer, raw.value(), indentFactor, indent);
+            } else {
+                writer.write(raw.source, raw.start, raw.end - raw.start);
+            }
         } else if (value instanceof JSONString) {
             Object o;
             try {
@@ -1581,6 +2240,11 @@ public class JSONObject {
     Writer write(Writer writer, int indentFactor, int indent)
             throws JSONException {
         try {
+            byte[] text = indentFactor == 0 ? this.cachedText() : null;
+            if (text != null) {
+                writer.write(new String(text, StandardCharsets.UTF_8));
+                return writer;
+            }
             boolean commanate = false;
             final int length = this.length();
             Iterator keys = this.keys();
@@ -1588,7 +2252,7 @@ public class JSONObject {
 
             if (length == 1) {
                 Object key = keys.next();
-                writer.write(quote(key.toString()));
+                quote(key.toString(), writer);
                 writer.write(':');
                 if (indentFactor > 0) {
                     writer.write(' ');
@@ -1605,7 +2269,7 @@ public class JSONObject {
                         writer.write('\n');
                     }
                     indent(writer, newindent);
-                    writer.write(quote(key.toString()));
+                    quote(key.toString(), writer);
                     writer.write(':');
                     if (indentFactor > 0) {
                         writer.write(' ');
@@ -0,0 +1,280 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.Reader;
+
+/**
+ * A JSONParseContext parses document after document while recycling what
+ * it makes. It is meant for work that parses a JSON text, reads a few
+ * values and throws it away, over and over. The JSONObjects and JSONArrays
+ * that it hands out, with the arrays that hold their members and elements,
+ * are kept by the context and filled again after the next
+ * <code>reset</code>. One tokener and its character buffer serve every
+ * parse, and short strings are shared through a string pool. Once a run
+ * of same-shaped documents has warmed the context up, parsing makes
+ * little garbage beyond the boxed numbers and the strings that are too
+ * long or too varied to pool.
+ * <p>
+ * Resetting is explicit. The values from each parse stay good until
+ * <code>reset</code> is called. After that, every JSONObject and JSONArray
+ * that the context handed out is emptied and will be reused, so none of
+ * them may be kept or used. Copy or <code>freeze</code> anything that must
+ * outlive the reset:
+ * <pre>
+ * JSONParseContext context = new JSONParseContext();
+ * for (String text : texts) {
+ *     JSONObject jo = context.parseObject(text);
+ *     handle(jo.optString("id"), jo.optInt("code"));
+ *     context.reset();
+ * }
+ * </pre>
+ * A context is not thread-safe. Each thread should have its own.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public final class JSONParseContext {
+
+    /**
+     * The number of strings in a context's own string pool.
+     */
+    private static final int stringPoolSize = 1024;
+
+    /**
+     * The source that the tokener reads.
+     */
+    private final Source source = new Source();
+
+    /**
+     * The tokener that reads every document.
+     */
+    private final JSONTokener tokener;
+
+    /**
+     * Every JSONObject that the context has made. The first objectsUsed of
+     * them have been handed out since the last reset.
+     */
+    private JSONObject[] objects = new JSONObject[16];
+    private int objectsMade;
+    private int objectsUsed;
+
+    /**
+     * Every JSONArray that the context has made. The first arraysUsed of
+     * them have been handed out since the last reset.
+     */
+    private JSONArray[] arrays = new JSONArray[16];
+    private int arraysMade;
+    private int arraysUsed;
+
+
+    /**
+     * Construct a context with a string pool of its own.
+     */
+    public JSONParseContext() {
+        this(new JSONKeyPool(stringPoolSize));
+    }
+
+
+    /**
+     * Construct a context that shares short strings through a pool.
+     * @param stringPool A pool, which can be shared with other contexts, or
+     *  null to share no strings.
+     */
+    public JSONParseContext(JSONKeyPool stringPool) {
+        this.tokener = new JSONTokener(this.source);
+        this.tokener.setStringPool(stringPool);
+    }
+
+
+    /**
+     * Parse a JSON object text. The JSONObject and everything in it belong
+     * to the context until the next reset.
+     * @param text A string that begins with '{' and ends with '}'.
+     * @return A JSONObject.
+     * @throws JSONException If there is a syntax error.
+     */
+    public JSONObject parseObject(String text) throws JSONException {
+        return this.object(this.start(text));
+    }
+
+
+    /**
+     * Parse a JSON array text. The JSONArray and everything in it belong
+     * to the context until the next reset.
+     * @param text A string that begins with '[' and ends with ']'.
+     * @return A JSONArray.
+     * @throws JSONException If there is a syntax error.
+     */
+    public JSONArray parseArray(String text) throws JSONException {
+        return this.array(this.start(text));
+    }
+
+
+    /**
+     * Parse any JSON value text. A JSONObject or JSONArray that is returned
+     * belongs to the context until the next reset.
+     * @param text A JSON text.
+     * @return The value.
+     * @throws JSONException If there is a syntax error.
+     */
+    public Object parse(String text) throws JSONException {
+        return this.start(text).nextValue();
+    }
+
+
+    /**
+     * Take back every JSONObject and JSONArray handed out since the last
+     * reset, emptying them to be filled by the coming parses. They must
+     * not be used after this.
+     */
+    public void reset() {
+        for (int i = 0; i < this.objectsUsed; i += 1) {
+            this.objects[i].recycle();
+        }
+        for (int i = 0; i < this.arraysUsed; i += 1) {
+            this.arrays[i].recycle();
+        }
+        this.objectsUsed = 0;
+        this.arraysUsed = 0;
+    }
+
+
+    /**
+     * Get the pool that short strings are shared through.
+     * @return The string pool, or null.
+     */
+    public JSONKeyPool getStringPool() {
+        return this.tokener.stringPool();
+    }
+
+
+    /**
+     * Get the number of JSONObjects and JSONArrays that the context holds
+     * for reuse, whether handed out or not.
+     * @return The number of containers made.
+     */
+    public int size() {
+        return this.objectsMade + this.arraysMade;
+    }
+
+
+    private JSONTokener start(String text) {
+        this.source.reset(text);
+        this.tokener.reset(this.source, this);
+        return this.tokener;
+    }
+
+
+    /**
+     * Read an object with the next free JSONObject. Called by the tokener.
+     */
+    JSONObject object(JSONTokener x) throws JSONException {
+        JSONObject jo;
+        if (this.objectsUsed < this.objectsMade) {
+            jo = this.objects[this.objectsUsed];
+        } else {
+            if (this.objectsMade == this.objects.length) {
+                JSONObject[] bigger = new JSONObject[this.objectsMade << 1];
+                System.arraycopy(this.objects, 0, bigger, 0, this.objectsMade);
+                this.objects = bigger;
+            }
+            jo = new JSONObject();
+            this.objects[this.objectsMade++] = jo;
+        }
+        this.objectsUsed += 1;
+        jo.read(x);
+        return jo;
+    }
+
+
+    /**
+     * Read an array with the next free JSONArray. Called by the tokener.
+     */
+    JSONArray array(JSONTokener x) throws JSONException {
+        JSONArray ja;
+        if (this.arraysUsed < this.arraysMade) {
+            ja = this.arrays[this.arraysUsed];
+        } else {
+            if (this.arraysMade == this.arrays.length) {
+                JSONArray[] bigger = new JSONArray[this.arraysMade << 1];
+                System.arraycopy(this.arrays, 0, bigger, 0, this.arraysMade);
+                this.arrays = bigger;
+            }
+            ja = new JSONArray();
+            this.arrays[this.arraysMade++] = ja;
+        }
+        this.arraysUsed += 1;
+        ja.read(x);
+        return ja;
+    }
+
+
+    /**
+     * A Reader over a string that can be pointed at another string, so
+     * that one serves every parse.
+     */
+    private static final class Source extends Reader {
+        private String text = "";
+        private int next;
+        private int mark;
+
+        void reset(String text) {
+            this.text = text;
+            this.next = 0;
+            this.mark = 0;
+        }
+
+        public int read() {
+            return this.next < this.text.length()
+                ? this.text.charAt(this.next++)
+                : -1;
+        }
+
+        public int read(char[] buffer, int offset, int length) {
+            int n = Math.min(length, this.text.length() - this.next);
+            if (n <= 0) {
+                return length == 0 ? 0 : -1;
+            }
+            this.text.getChars(this.next, this.next + n, buffer, offset);
+            this.next += n;
+            return n;
+        }
+
+        public boolean markSupported() {
+            return true;
+        }
+
+        public void mark(int limit) {
+            this.mark = this.next;
+        }
+
+        public void reset() {
+            this.next = this.mark;
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A JSONProjection parses only selected parts of a JSON text. It is made
+ * from a list of paths. A path is a sequence of keys separated by dots, such
+ * as <code>"data.group"</code>. A key of <code>*</code> matches any key, and
+ * a key made of digits matches that index of an array. When a path ends at a
+ * value, the whole value is kept. Everything that no path leads to is passed
+ * over with <code>JSONTokener.skipValue</code>, without building objects or
+ * decoding strings.
+ * <p>
+ * For example, the projection
+ * <pre>
+ * new JSONProjection(new String[] {"code", "desc", "*.code"})</pre>
+ * keeps the code and desc members of an object, and the code member of
+ * every object held in any of its members. An object or array that lies on
+ * a path is kept even if none of its members are selected. Skipped array
+ * elements are kept as <code>JSONObject.NULL</code> so that the indexes of
+ * the remaining elements do not change. A JSONProjection is immutable, so one instance can
+ * be shared by any number of threads.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class JSONProjection {
+
+    /**
+     * A node of the path tree.
+     */
+    private static final class Node {
+
+        /**
+         * Whether a path ends here, so the whole value is wanted.
+         */
+        boolean all;
+
+        /**
+         * The nodes for particular keys.
+         */
+        final Map children = new HashMap();
+
+        /**
+         * The node for the wildcard key, or null.
+         */
+        Node wildcard;
+
+        /**
+         * Get or make the node for a key.
+         */
+        Node child(String key) {
+            if ("*".equals(key)) {
+                if (this.wildcard == null) {
+                    this.wildcard = new Node();
+                }
+                return this.wildcard;
+            }
+            Node node = (Node)this.children.get(key);
+            if (node == null) {
+                node = new Node();
+                this.children.put(key, node);
+            }
+            return node;
+        }
+
+        /**
+         * Find the node that applies to a key.
+         * @return The node, or null if the value under the key is not wanted.
+         */
+        Node find(String key) {
+            Node node = (Node)this.children.get(key);
+            return node != null ? node : this.wildcard;
+        }
+    }
+
+    private final Node root;
+
+
+    /**
+     * Construct a JSONProjection from a list of paths.
+     * @param paths An array of dotted paths.
+     */
+    public JSONProjection(String[] paths) {
+        this.root = new Node();
+        for (int i = 0; i < paths.length; i += 1) {
+            String[] keys = paths[i].split("\\.", -1);
+            Node node = this.root;
+            for (int k = 0; k < keys.length; k += 1) {
+                node = node.child(keys[k]);
+            }
+            node.all = true;
+        }
+        complete(this.root);
+    }
+
+
+    /**
+     * Copy the paths of one node into another.
+     */
+    private static void merge(Node into, Node from) {
+        into.all |= from.all;
+        Iterator i = from.children.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry e = (Map.Entry)i.next();
+            merge(into.child((String)e.getKey()), (Node)e.getValue());
+        }
+        if (from.wildcard != null) {
+            merge(into.child("*"), from.wildcard);
+        }
+    }
+
+
+    /**
+     * Give every particular key the paths of the wildcard as well, so that
+     * a key can be matched with a single lookup.
+     */
+    private static void complete(Node node) {
+        Iterator i = node.children.values().iterator();
+        while (i.hasNext()) {
+            Node child = (Node)i.next();
+            if (node.wildcard != null) {
+                merge(child, node.wildcard);
+            }
+            complete(child);
+        }
+        if (node.wildcard != null) {
+            complete(node.wildcard);
+        }
+    }
+
+
+    /**
+     * Parse the selected parts of a JSON object text.
+     * @param source A string beginning with <code>{</code>.
+     * @return A JSONObject holding the selected values.
+     * @throws JSONException If there is a syntax error.
+     */
+    public JSONObject parse(String source) throws JSONException {
+        return this.parse(new JSONTokener(source));
+    }
+
+
+    /**
+     * Parse the selected parts of a JSON object text.
+     * @param x A JSONTokener positioned before a JSON object.
+     * @return A JSONObject holding the selected values.
+     * @throws JSONException If there is a syntax error.
+     */
+    public JSONObject parse(JSONTokener x) throws JSONException {
+        if (this.root.all) {
+            return new JSONObject(x);
+        }
+        return this.object(x, this.root);
+    }
+
+
+    /**
+     * Parse the value that a node applies to.
+     * @return The value, or null if the value has none of the selected parts.
+     */
+    private Object value(JSONTokener x, Node node) throws JSONException {
+        if (node.all) {
+            return x.nextValue();
+        }
+        char c = x.nextClean();
+        x.back();
+        if (c == '{') {
+            return this.object(x, node);
+        }
+        if (c == '[') {
+            return this.array(x, node);
+        }
+        x.skipValue();
+        return null;
+    }
+
+
+    private JSONObject object(JSONTokener x, Node node) throws JSONException {
+        JSONObject jo = new JSONObject();
+        char c;
+        String key;
+
+        if (x.nextClean() != '{') {
+            throw x.syntaxError("A JSONObject text must begin with '{'");
+        }
+        for (;;) {
+            c = x.nextClean();
+            switch (c) {
+            case 0:
+                throw x.syntaxError("A JSONObject text must end with '}'");
+            case '}':
+                return jo;
+            default:
+                x.back();
+                key = x.nextValue().toString();
+            }
+
+// The key is followed by ':'. We will also tolerate '=' or '=>'.
+
+            c = x.nextClean();
+            if (c == '=') {
+                if (x.next() != '>') {
+                    x.back();
+                }
+            } else if (c != ':') {
+                throw x.syntaxError("Expected a ':' after a key");
+            }
+            Node child = node.find(key);
+            if (child == null) {
+                x.skipValue();
+            } else {
+                jo.putOnce(key, this.value(x, child));
+            }
+
+// Pairs are separated by ','. We will also tolerate ';'.
+
+            switch (x.nextClean()) {
+            case ';':
+            case ',':
+                if (x.nextClean() == '}') {
+                    return jo;
+                }
+                x.back();
+                break;
+            case '}':
+                return jo;
+            default:
+                throw x.syntaxError("Expected a ',' or '}'");
+            }
+        }
+    }
+
+
+    private JSONArray array(JSONTokener x, Node node) throws JSONException {
+        JSONArray ja = new JSONArray();
+        if (x.nextClean() != '[') {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+        if (x.nextClean() == ']') {
+            return ja;
+        }
+        x.back();
+        for (int index = 0; ; index += 1) {
+            Object value = null;
+            if (x.nextClean() == ',') {
+                x.back();
+            } else {
+                x.back();
+                Node child = node.find(Integer.toString(index));
+                if (child == null) {
+                    x.skipValue();
+                } else {
+                    value = this.value(x, child);
+                }
+            }
+            ja.put(value == null ? JSONObject.NULL : value);
+            switch (x.nextClean()) {
+            case ';':
+            case ',':
+                if (x.nextClean() == ']') {
+                    return ja;
+                }
+                x.back();
+                break;
+            case ']':
+                return ja;
+            default:
+                throw x.syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
+}
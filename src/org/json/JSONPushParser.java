@@ -0,0 +1,448 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * A JSONPushParser parses JSON text that arrives in pieces, such as the
+ * buffers read from a non-blocking socket. Each piece is given to
+ * <code>feed</code>, which parses as far as it can and returns without
+ * waiting for more. The parser keeps its place between pieces, even in the
+ * middle of a string, an escape, or a UTF-8 sequence. Each top-level value is
+ * available from <code>next</code> as soon as it is complete:
+ * <pre>
+ * JSONPushParser parser = new JSONPushParser();
+ * ...
+ * parser.feed(buffer);
+ * while (parser.hasNext()) {
+ *     JSONObject response = (JSONObject)parser.next();
+ *     ...
+ * }
+ * </pre>
+ * Several values may follow one another, separated by whitespace or not at
+ * all, as in a stream of JSON texts. A number at the top level is only known
+ * to be complete when something follows it or <code>end</code> is called.
+ * <p>
+ * A JSONPushParser accepts standard JSON only. After a JSONException it
+ * must not be fed any more.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class JSONPushParser {
+
+// The lexical modes.
+
+    private static final int NONE = 0;
+    private static final int STRING = 1;
+    private static final int ESCAPE = 2;
+    private static final int UNICODE = 3;
+    private static final int TOKEN = 4;
+
+// What may come next.
+
+    private static final int VALUE = 0;
+    private static final int FIRST_VALUE = 1;
+    private static final int FIRST_KEY = 2;
+    private static final int KEY = 3;
+    private static final int COLON = 4;
+    private static final int NEXT = 5;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8
+        .newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * The bytes of a UTF-8 sequence whose end has not arrived yet.
+     */
+    private final ByteBuffer carry = ByteBuffer.allocate(8);
+
+    private final CharBuffer chars = CharBuffer.allocate(1024);
+
+    /**
+     * The completed top-level values not yet taken.
+     */
+    private final ArrayDeque ready = new ArrayDeque();
+
+    /**
+     * The text of the string or token being read.
+     */
+    private final StringBuilder sb = new StringBuilder();
+
+    /**
+     * The open objects and arrays, and the key of the member being read in
+     * each open object.
+     */
+    private Object[] stack = new Object[16];
+    private String[] keys = new String[16];
+    private int depth;
+
+    private int mode = NONE;
+    private int expect = VALUE;
+
+    /**
+     * Whether the string being read is a key.
+     */
+    private boolean isKey;
+
+    /**
+     * The value of a unicode escape being read, and its number of digits.
+     */
+    private int hex;
+    private int digits;
+
+    /**
+     * The number of characters parsed.
+     */
+    private long offset;
+
+
+    /**
+     * Parse a piece of UTF-8 encoded JSON text. All of the remaining bytes of
+     * the buffer are consumed.
+     * @param bytes The bytes that have arrived.
+     * @throws JSONException If there is a syntax error.
+     */
+    public void feed(ByteBuffer bytes) throws JSONException {
+        while (this.carry.position() > 0 && bytes.hasRemaining()) {
+            this.carry.put(bytes.get());
+            this.carry.flip();
+            this.decoder.decode(this.carry, this.chars, false);
+            this.carry.compact();
+        }
+        for (;;) {
+            CoderResult result = this.decoder.decode(bytes, this.chars, false);
+            this.drain();
+            if (result.isUnderflow()) {
+                break;
+            }
+        }
+        this.carry.put(bytes);
+    }
+
+
+    /**
+     * Parse a piece of JSON text.
+     * @param string The characters that have arrived.
+     * @throws JSONException If there is a syntax error.
+     */
+    public void feed(String string) throws JSONException {
+        int length = string.length();
+        for (int i = 0; i < length; i += 1) {
+            this.parse(string.charAt(i));
+        }
+    }
+
+
+    /**
+     * Tell the parser that the text has ended, so that a number at the top
+     * level is completed. The parser can then be fed a new text.
+     * @throws JSONException If the text ended in the middle of a value.
+     */
+    public void end() throws JSONException {
+        this.carry.flip();
+        this.decoder.decode(this.carry, this.chars, true);
+        this.decoder.flush(this.chars);
+        this.decoder.reset();
+        this.carry.clear();
+        this.drain();
+        if (this.mode == TOKEN) {
+            this.token();
+        }
+        if (this.mode != NONE || this.depth > 0) {
+            throw this.syntaxError("Unexpected end of input");
+        }
+        this.offset = 0;
+    }
+
+
+    /**
+     * Determine if a top-level value is complete.
+     * @return true if <code>next</code> will return a value.
+     */
+    public boolean hasNext() {
+        return !this.ready.isEmpty();
+    }
+
+
+    /**
+     * Take the next completed top-level value.
+     * @return A JSONObject, JSONArray, String, Number, Boolean or
+     *  JSONObject.NULL, or null if no value is complete.
+     */
+    public Object next() {
+        return this.ready.poll();
+    }
+
+
+    /**
+     * Get the depth of nesting at the current position.
+     * @return The number of objects and arrays that are open.
+     */
+    public int depth() {
+        return this.depth;
+    }
+
+
+    private JSONException syntaxError(String message) {
+        return JSONException.syntaxError(message + " at " + this.offset);
+    }
+
+
+    /**
+     * Parse the characters that have been decoded.
+     */
+    private void drain() throws JSONException {
+        this.chars.flip();
+        while (this.chars.hasRemaining()) {
+            this.parse(this.chars.get());
+        }
+        this.chars.clear();
+    }
+
+
+    /**
+     * Parse one character.
+     */
+    private void parse(char c) throws JSONException {
+        switch (this.mode) {
+        case STRING:
+            if (c == '"') {
+                this.mode = NONE;
+                String string = this.sb.toString();
+                this.sb.setLength(0);
+                if (this.isKey) {
+                    this.keys[this.depth - 1] = string;
+                    this.expect = COLON;
+                } else {
+                    this.value(string);
+                }
+            } else if (c == '\\') {
+                this.mode = ESCAPE;
+            } else if (c == '\n' || c == '\r') {
+                throw this.syntaxError("Unterminated string");
+            } else if (c < ' ') {
+                throw this.syntaxError("Control character in string");
+            } else {
+                this.sb.append(c);
+            }
+            this.offset += 1;
+            return;
+        case ESCAPE:
+            this.mode = STRING;
+            switch (c) {
+            case 'b':
+                this.sb.append('\b');
+                break;
+            case 't':
+                this.sb.append('\t');
+                break;
+            case 'n':
+                this.sb.append('\n');
+                break;
+            case 'f':
+                this.sb.append('\f');
+                break;
+            case 'r':
+                this.sb.append('\r');
+                break;
+            case 'u':
+                this.mode = UNICODE;
+                this.hex = 0;
+                this.digits = 0;
+                break;
+            case '"':
+            case '\\':
+            case '/':
+                this.sb.append(c);
+                break;
+            default:
+                throw this.syntaxError("Illegal escape.");
+            }
+            this.offset += 1;
+            return;
+        case UNICODE:
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                throw this.syntaxError("Illegal escape.");
+            }
+            this.hex = this.hex * 16 + digit;
+            this.digits += 1;
+            if (this.digits == 4) {
+                this.sb.append((char)this.hex);
+                this.mode = STRING;
+            }
+            this.offset += 1;
+            return;
+        case TOKEN:
+            if (c > ' ' && c != ',' && c != ':' && c != ']' && c != '}' &&
+                    c != '[' && c != '{' && c != '"') {
+                this.sb.append(c);
+                this.offset += 1;
+                return;
+            }
+            this.token();
+        }
+        this.structure(c);
+        this.offset += 1;
+    }
+
+
+    /**
+     * Parse a character that is not part of a string or token.
+     */
+    private void structure(char c) throws JSONException {
+        if (c <= ' ') {
+            return;
+        }
+        if ((this.expect == FIRST_VALUE && c == ']') ||
+                (this.expect == FIRST_KEY && c == '}')) {
+            this.close();
+            return;
+        }
+        switch (this.expect) {
+        case FIRST_VALUE:
+        case VALUE:
+            switch (c) {
+            case '{':
+                this.open(new JSONObject(), FIRST_KEY);
+                return;
+            case '[':
+                this.open(new JSONArray(), FIRST_VALUE);
+                return;
+            case '"':
+                this.mode = STRING;
+                this.isKey = false;
+                return;
+            case '}':
+            case ']':
+            case ':':
+            case ',':
+                throw this.syntaxError("Missing value");
+            default:
+                this.mode = TOKEN;
+                this.sb.append(c);
+                return;
+            }
+        case FIRST_KEY:
+        case KEY:
+            if (c != '"') {
+                throw this.syntaxError("Expected a key");
+            }
+            this.mode = STRING;
+            this.isKey = true;
+            return;
+        case COLON:
+            if (c != ':') {
+                throw this.syntaxError("Expected a ':' after a key");
+            }
+            this.expect = VALUE;
+            return;
+        default:
+            boolean object = this.stack[this.depth - 1] instanceof JSONObject;
+            if (c == ',') {
+                this.expect = object ? KEY : VALUE;
+            } else if (c == (object ? '}' : ']')) {
+                this.close();
+            } else {
+                throw this.syntaxError(object
+                    ? "Expected a ',' or '}'"
+                    : "Expected a ',' or ']'");
+            }
+        }
+    }
+
+
+    /**
+     * Finish a number or literal.
+     */
+    private void token() throws JSONException {
+        String string = this.sb.toString();
+        this.sb.setLength(0);
+        this.mode = NONE;
+        if (string.equals("true")) {
+            this.value(Boolean.TRUE);
+        } else if (string.equals("false")) {
+            this.value(Boolean.FALSE);
+        } else if (string.equals("null")) {
+            this.value(JSONObject.NULL);
+        } else if (JSONTape.isNumber(string, 0, string.length())) {
+            this.value(JSONObject.stringToValue(string));
+        } else {
+            throw this.syntaxError("Unexpected value");
+        }
+    }
+
+
+    private void open(Object container, int expect) {
+        if (this.depth == this.stack.length) {
+            Object[] stack = new Object[this.depth * 2];
+            String[] keys = new String[this.depth * 2];
+            System.arraycopy(this.stack, 0, stack, 0, this.depth);
+            System.arraycopy(this.keys, 0, keys, 0, this.depth);
+            this.stack = stack;
+            this.keys = keys;
+        }
+        this.stack[this.depth] = container;
+        this.depth += 1;
+        this.expect = expect;
+    }
+
+
+    private void close() throws JSONException {
+        this.depth -= 1;
+        Object container = this.stack[this.depth];
+        this.stack[this.depth] = null;
+        this.keys[this.depth] = null;
+        this.value(container);
+    }
+
+
+    /**
+     * Add a completed value to the open object or array, or make it ready
+     * if it is at the top level.
+     */
+    private void value(Object value) throws JSONException {
+        if (this.depth == 0) {
+            this.ready.add(value);
+            this.expect = VALUE;
+            return;
+        }
+        Object container = this.stack[this.depth - 1];
+        if (container instanceof JSONObject) {
+            ((JSONObject)container).putOnce(this.keys[this.depth - 1], value);
+        } else {
+            ((JSONArray)container).put(value);
+        }
+        this.expect = NEXT;
+    }
+}
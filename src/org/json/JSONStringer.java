@@ -24,8 +24,6 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
 
-import java.io.StringWriter;
-
 /**
  * JSONStringer provides a quick and convenient way of producing JSON text.
  * The texts produced strictly conform to JSON syntax rules. No whitespace is
@@ -50,18 +48,74 @@ import java.io.StringWriter;
  * <p>
  * The first method called must be <code>array</code> or <code>object</code>.
  * There are no methods for adding commas or colons. JSONStringer adds them for
- * you. Objects and arrays can be nested up to 20 levels deep.
+ * you. Objects and arrays can be nested up to 200 levels deep.
+ * <p>
+ * A JSONStringer can be reused after <code>reset</code>.
+ * <code>JSONStringer.local()</code> gives a reset JSONStringer that is kept
+ * for the current thread, so that building a text allocates little more than
+ * the resulting string.
  * <p>
  * This can sometimes be easier than using a JSONObject to build a string.
  * @author JSON.org
- * @version 2008-09-18
+ * @version 2026-10-19
  */
 public class JSONStringer extends JSONWriter {
+
+    /**
+     * A buffer that has grown beyond this size is not kept for reuse.
+     */
+    private static final int maxPooledSize = 65536;
+
+    private static final ThreadLocal pool = new ThreadLocal();
+
     /**
      * Make a fresh JSONStringer. It can be used to build one JSON text.
      */
     public JSONStringer() {
-        super(new StringWriter());
+        this(true);
+    }
+
+    /**
+     * Make a fresh JSONStringer. It can be used to build one JSON text, or
+     * more if it is reset.
+     * @param checkKeys true if a key that is used twice in an object should
+     *  be refused.
+     */
+    public JSONStringer(boolean checkKeys) {
+        super(new StringBuilderWriter(64), checkKeys);
+    }
+
+    /**
+     * Get the JSONStringer kept for the current thread, reset and ready to
+     * build a new text. If that JSONStringer is in the middle of building a
+     * text, either because a build failed partway or because this is called
+     * while another text is being built, a fresh one is kept in its place
+     * and returned. A build that is still in progress keeps the one it has,
+     * and a failed build no longer stops the thread from reusing a
+     * JSONStringer. Take the text with <code>toString</code> before the next
+     * call to <code>local</code> on the same thread.
+     * @return A JSONStringer.
+     */
+    public static JSONStringer local() {
+        JSONStringer stringer = (JSONStringer)pool.get();
+        if (stringer == null ||
+                ((StringBuilderWriter)stringer.writer).capacity() >
+                maxPooledSize ||
+                (stringer.mode != 'i' && stringer.mode != 'd')) {
+            stringer = new JSONStringer();
+            pool.set(stringer);
+        }
+        stringer.reset();
+        return stringer;
+    }
+
+    /**
+     * Discard the text built so far, so that the JSONStringer can build
+     * another one.
+     */
+    public void reset() {
+        super.reset();
+        ((StringBuilderWriter)this.writer).reset();
     }
 
     /**
@@ -0,0 +1,794 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.Arrays;
+
+/**
+ * A JSONTape is a read-only index over a JSON text that answers lookups
+ * without building a tree of JSONObjects and JSONArrays. It is made in two
+ * stages. The first stage finds the position of every structural character
+ * (<code>{ } [ ] : ,</code>), of the quotes around every string, and of the
+ * start of every number and literal. The second stage checks the grammar
+ * and records each value as one <code>long</code> on a tape, in document
+ * order. The entry for an object or array holds the tape index just past its
+ * last member, so a lookup can step over a whole subtree at once.
+ * <p>
+ * Values are found with JSON Pointers (RFC 6901), such as
+ * <code>"/0/group"</code>. The empty pointer refers to the whole document.
+ * Strings, numbers and booleans are decoded from the source only when they
+ * are asked for. An object or array that is asked for is returned as a lazily
+ * parsed JSONObject or JSONArray. A JSONTape does not change once it is made,
+ * so it can be cached and shared between threads.
+ * <p>
+ * A JSONTape accepts standard JSON only.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public final class JSONTape {
+
+    /**
+     * The type of a pointer that does not refer to a value.
+     */
+    public static final int MISSING = 0;
+
+    /**
+     * The type of an object.
+     */
+    public static final int OBJECT = 1;
+
+    /**
+     * The type of an array.
+     */
+    public static final int ARRAY = 2;
+
+    /**
+     * The type of a string.
+     */
+    public static final int STRING = 3;
+
+    /**
+     * The type of a number.
+     */
+    public static final int NUMBER = 4;
+
+    /**
+     * The type of <code>true</code> and <code>false</code>.
+     */
+    public static final int BOOLEAN = 5;
+
+    /**
+     * The type of <code>null</code>.
+     */
+    public static final int NULL = 6;
+
+    /**
+     * The tape type of a string that contains escapes.
+     */
+    private static final int ESCAPED = 7;
+
+    /**
+     * The largest size of a string or of a tape.
+     */
+    private static final int limit = (1 << 28) - 1;
+
+    /**
+     * The source text.
+     */
+    private final String source;
+
+    /**
+     * The tape. Each entry holds a type in its top 4 bits, the source
+     * position of the value in its low 32 bits, and in between either the
+     * tape index after the value, for an object or array, or the length of
+     * the value's text. It is trimmed to its final length and assigned once
+     * the tape is built, so being final, it is safely published to every
+     * thread that the JSONTape is shared with.
+     */
+    private final long[] tape;
+
+    /**
+     * The tape while it is being built, with room to grow, or null once it
+     * is built.
+     */
+    private long[] entries;
+
+    /**
+     * The number of entries being built.
+     */
+    private int size;
+
+
+    /**
+     * Construct a JSONTape from a source JSON text.
+     * @param source A JSON text.
+     * @throws JSONException If there is a syntax error.
+     */
+    public JSONTape(String source) throws JSONException {
+        this.source = source;
+        StructuralScanner scanner = new StructuralScanner(source);
+        scanner.scan();
+        this.entries = new long[Math.max(4, scanner.count / 2 + 1)];
+        this.build(scanner.positions, scanner.count);
+        this.tape = Arrays.copyOf(this.entries, this.size);
+        this.entries = null;
+    }
+
+
+    /**
+     * Find the end of a number or literal.
+     */
+    private int tokenEnd(int i) {
+        return StructuralScanner.tokenEnd(this.source, i);
+    }
+
+
+    /**
+     * Stage two. Check the grammar and fill the tape.
+     * @param structurals The positions found by stage one.
+     * @param count The number of positions.
+     * @throws JSONException If there is a syntax error.
+     */
+    private void build(int[] structurals, int count) throws JSONException {
+        String s = this.source;
+        int[] stack = new int[16];
+        int depth = 0;
+        int k = 0;
+        for (;;) {
+
+// A value is expected.
+
+            if (k >= count) {
+                throw this.syntaxError("Missing value", s.length());
+            }
+            int p = structurals[k];
+            char c = s.charAt(p);
+            boolean open = false;
+            switch (c) {
+            case '{':
+            case '[':
+                if (depth == stack.length) {
+                    int[] grown = new int[depth * 2];
+                    System.arraycopy(stack, 0, grown, 0, depth);
+                    stack = grown;
+                }
+                stack[depth] = this.size;
+                depth += 1;
+                this.append(c == '{' ? OBJECT : ARRAY, 0, p);
+                k += 1;
+                open = true;
+                break;
+            case '"':
+                k = this.string(structurals, k);
+                break;
+            case '}':
+            case ']':
+            case ':':
+            case ',':
+                throw this.syntaxError("Missing value", p);
+            default:
+                this.append(this.scalar(p), this.tokenEnd(p) - p, p);
+                k += 1;
+            }
+            if (open) {
+                char close = c == '{' ? '}' : ']';
+                if (k < count && s.charAt(structurals[k]) == close) {
+                    depth -= 1;
+                    this.close(stack[depth]);
+                    k += 1;
+                } else {
+                    if (c == '{') {
+                        k = this.key(structurals, k, count);
+                    }
+                    continue;
+                }
+            }
+
+// A value has ended. Close any containers that end with it.
+
+            for (;;) {
+                if (depth == 0) {
+                    if (k < count) {
+                        throw this.syntaxError("Unexpected text",
+                                structurals[k]);
+                    }
+                    return;
+                }
+                if (k >= count) {
+                    throw this.syntaxError("Unterminated value", s.length());
+                }
+                p = structurals[k];
+                c = s.charAt(p);
+                boolean object = type(this.entries[stack[depth - 1]]) == OBJECT;
+                if (c == ',') {
+                    k += 1;
+                    if (object) {
+                        k = this.key(structurals, k, count);
+                    }
+                    break;
+                }
+                if (c != (object ? '}' : ']')) {
+                    throw this.syntaxError(object
+                        ? "Expected a ',' or '}'"
+                        : "Expected a ',' or ']'", p);
+                }
+                depth -= 1;
+                this.close(stack[depth]);
+                k += 1;
+            }
+        }
+    }
+
+
+    /**
+     * Put a key and its colon on the tape.
+     * @return The index of the next structural position.
+     */
+    private int key(int[] structurals, int k, int count)
+            throws JSONException {
+        if (k >= count || this.source.charAt(structurals[k]) != '"') {
+            throw this.syntaxError("Expected a key",
+                k < count ? structurals[k] : this.source.length());
+        }
+        k = this.string(structurals, k);
+        if (k >= count || this.source.charAt(structurals[k]) != ':') {
+            throw this.syntaxError("Expected a ':' after a key",
+                k < count ? structurals[k] : this.source.length());
+        }
+        return k + 1;
+    }
+
+
+    /**
+     * Put a string on the tape.
+     * @return The index of the next structural position.
+     */
+    private int string(int[] structurals, int k) throws JSONException {
+        int p = structurals[k];
+        int end = structurals[k + 1];
+        boolean escaped = end < 0;
+        if (escaped) {
+            end = ~end;
+            this.checkEscapes(p, end);
+        }
+        if (end + 1 - p > limit) {
+            throw this.syntaxError("String too long", p);
+        }
+        this.append(escaped ? ESCAPED : STRING, end + 1 - p, p);
+        return k + 2;
+    }
+
+
+    /**
+     * Check the escapes of a string.
+     */
+    private void checkEscapes(int start, int end) throws JSONException {
+        String s = this.source;
+        for (int i = start + 1; i < end; i += 1) {
+            if (s.charAt(i) != '\\') {
+                continue;
+            }
+            i += 1;
+            switch (s.charAt(i)) {
+            case 'u':
+                for (int j = 1; j <= 4; j += 1) {
+                    if (i + j >= end ||
+                            Character.digit(s.charAt(i + j), 16) < 0) {
+                        throw this.syntaxError("Illegal escape.", i);
+                    }
+                }
+                i += 4;
+                break;
+            case 'b':
+            case 't':
+            case 'n':
+            case 'f':
+            case 'r':
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                break;
+            default:
+                throw this.syntaxError("Illegal escape.", i);
+            }
+        }
+    }
+
+
+    /**
+     * Find the type of the number or literal at a position.
+     */
+    private int scalar(int p) throws JSONException {
+        String s = this.source;
+        int end = this.tokenEnd(p);
+        int length = end - p;
+        if (length == 4 && s.startsWith("true", p) ||
+                length == 5 && s.startsWith("false", p)) {
+            return BOOLEAN;
+        }
+        if (length == 4 && s.startsWith("null", p)) {
+            return NULL;
+        }
+        if (!isNumber(s, p, end) || length > limit) {
+            throw this.syntaxError("Unexpected value", p);
+        }
+        return NUMBER;
+    }
+
+
+    /**
+     * Determine if some text is a number in standard JSON: an optional
+     * minus sign, an integer part without leading zeros, an optional
+     * fraction and an optional exponent. The lazy and push parsers use this
+     * too, so that every strict parser accepts the same numbers.
+     * @param s The text.
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return true if the characters are exactly one JSON number.
+     */
+    static boolean isNumber(CharSequence s, int start, int end) {
+        int i = start;
+        if (i < end && s.charAt(i) == '-') {
+            i += 1;
+        }
+        int digits = digits(s, i, end);
+        if (digits == 0 || (digits > 1 && s.charAt(i) == '0')) {
+            return false;
+        }
+        i += digits;
+        if (i < end && s.charAt(i) == '.') {
+            i += 1;
+            digits = digits(s, i, end);
+            if (digits == 0) {
+                return false;
+            }
+            i += digits;
+        }
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i += 1;
+            if (i < end && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                i += 1;
+            }
+            digits = digits(s, i, end);
+            if (digits == 0) {
+                return false;
+            }
+            i += digits;
+        }
+        return i == end;
+    }
+
+
+    /**
+     * Count the digits starting at a position.
+     */
+    private static int digits(CharSequence s, int i, int end) {
+        int start = i;
+        while (i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i += 1;
+        }
+        return i - start;
+    }
+
+
+    /**
+     * Add an entry to the tape.
+     */
+    private void append(int type, int length, int position)
+            throws JSONException {
+        if (this.size == this.entries.length) {
+            if (this.size >= limit) {
+                throw new JSONException("JSONTape too large.");
+            }
+            long[] grown = new long[this.size * 2];
+            System.arraycopy(this.entries, 0, grown, 0, this.size);
+            this.entries = grown;
+        }
+        this.entries[this.size] = ((long)type << 60) | ((long)length << 32) |
+            (position & 0xffffffffL);
+        this.size += 1;
+    }
+
+
+    /**
+     * Record the end of an object or array on its entry.
+     */
+    private void close(int t) {
+        this.entries[t] |= (long)this.size << 32;
+    }
+
+
+    private static int type(long entry) {
+        return (int)(entry >>> 60);
+    }
+
+
+    private static int length(long entry) {
+        return (int)(entry >>> 32) & limit;
+    }
+
+
+    private static int position(long entry) {
+        return (int)entry;
+    }
+
+
+    /**
+     * Get the tape index after the value at a tape index.
+     */
+    private int next(int t) {
+        long entry = this.tape[t];
+        int type = type(entry);
+        return type == OBJECT || type == ARRAY ? length(entry) : t + 1;
+    }
+
+
+    private JSONException syntaxError(String message, int i) {
+        return JSONException.syntaxError(message + " at " + i);
+    }
+
+
+    /**
+     * Find the value a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return The tape index of the value, or -1 if there is none.
+     * @throws JSONException If the pointer does not begin with '/'.
+     */
+    private int find(String pointer) throws JSONException {
+        int length = pointer.length();
+        if (length == 0) {
+            return 0;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new JSONException("A JSON Pointer must begin with '/'.");
+        }
+        int t = 0;
+        int i = 1;
+        for (;;) {
+            int j = pointer.indexOf('/', i);
+            if (j < 0) {
+                j = length;
+            }
+            t = this.child(t, pointer, i, j);
+            if (t < 0 || j == length) {
+                return t;
+            }
+            i = j + 1;
+        }
+    }
+
+
+    /**
+     * Find the member or element named by one token of a JSON Pointer.
+     * @param t The tape index of the container.
+     * @return The tape index of the value, or -1 if there is none.
+     */
+    private int child(int t, String pointer, int from, int to)
+            throws JSONException {
+        long entry = this.tape[t];
+        int end = length(entry);
+        switch (type(entry)) {
+        case OBJECT:
+            int tilde = pointer.indexOf('~', from);
+            if (tilde >= 0 && tilde < to) {
+                pointer = pointer.substring(from, to)
+                    .replace("~1", "/").replace("~0", "~");
+                from = 0;
+                to = pointer.length();
+            }
+            for (int c = t + 1; c < end; c = this.next(c + 1)) {
+                if (this.keyEquals(this.tape[c], pointer, from, to)) {
+                    return c + 1;
+                }
+            }
+            return -1;
+        case ARRAY:
+            if (to == from || to - from > 9 ||
+                    (to - from > 1 && pointer.charAt(from) == '0')) {
+                return -1;
+            }
+            int index = 0;
+            for (int i = from; i < to; i += 1) {
+                char c = pointer.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                index = index * 10 + c - '0';
+            }
+            for (int c = t + 1; c < end; c = this.next(c)) {
+                if (index == 0) {
+                    return c;
+                }
+                index -= 1;
+            }
+            return -1;
+        default:
+            return -1;
+        }
+    }
+
+
+    /**
+     * Determine if a key on the tape is equal to part of a string.
+     */
+    private boolean keyEquals(long entry, String string, int from, int to)
+            throws JSONException {
+        int p = position(entry);
+        int length = length(entry);
+        if (type(entry) == ESCAPED) {
+            return new LazyScanner(this.source).string(p, p + length)
+                .equals(string.substring(from, to));
+        }
+        return length - 2 == to - from &&
+            this.source.regionMatches(p + 1, string, from, to - from);
+    }
+
+
+    /**
+     * Decode the value at a tape index.
+     */
+    private Object value(int t) throws JSONException {
+        long entry = this.tape[t];
+        int p = position(entry);
+        int length = length(entry);
+        switch (type(entry)) {
+        case OBJECT:
+            return new LazyScanner(this.source).object(p);
+        case ARRAY:
+            return new LazyScanner(this.source).array(p);
+        case STRING:
+            return this.source.substring(p + 1, p + length - 1);
+        case ESCAPED:
+            return new LazyScanner(this.source).string(p, p + length);
+        case NUMBER:
+            return JSONObject.stringToValue(
+                this.source.substring(p, p + length));
+        case BOOLEAN:
+            return this.source.charAt(p) == 't' ? Boolean.TRUE : Boolean.FALSE;
+        default:
+            return JSONObject.NULL;
+        }
+    }
+
+
+    /**
+     * Get the tape index of the value a pointer refers to.
+     * @throws JSONException If there is no such value.
+     */
+    private int at(String pointer) throws JSONException {
+        int t = this.find(pointer);
+        if (t < 0) {
+            throw new JSONException("JSONTape[" + JSONObject.quote(pointer) +
+                "] not found.");
+        }
+        return t;
+    }
+
+
+    /**
+     * Get the type of the value a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return One of OBJECT, ARRAY, STRING, NUMBER, BOOLEAN and NULL, or
+     *  MISSING if there is no such value.
+     * @throws JSONException If the pointer does not begin with '/'.
+     */
+    public int type(String pointer) throws JSONException {
+        int t = this.find(pointer);
+        if (t < 0) {
+            return MISSING;
+        }
+        int type = type(this.tape[t]);
+        return type == ESCAPED ? STRING : type;
+    }
+
+
+    /**
+     * Determine if a JSON Pointer refers to a value.
+     * @param pointer A JSON Pointer.
+     * @return true if there is a value.
+     * @throws JSONException If the pointer does not begin with '/'.
+     */
+    public boolean has(String pointer) throws JSONException {
+        return this.find(pointer) >= 0;
+    }
+
+
+    /**
+     * Get the value a JSON Pointer refers to. An object or array is returned
+     * as a lazily parsed JSONObject or JSONArray.
+     * @param pointer A JSON Pointer.
+     * @return The value.
+     * @throws JSONException If there is no such value.
+     */
+    public Object get(String pointer) throws JSONException {
+        return this.value(this.at(pointer));
+    }
+
+
+    /**
+     * Get the value a JSON Pointer refers to, or null if there is none.
+     * @param pointer A JSON Pointer.
+     * @return The value, or null.
+     */
+    public Object opt(String pointer) {
+        try {
+            int t = this.find(pointer);
+            return t < 0 ? null : this.value(t);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Get the boolean a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return The truth.
+     * @throws JSONException If there is no such value or if the value is not
+     *  a Boolean or the String "true" or "false".
+     */
+    public boolean getBoolean(String pointer) throws JSONException {
+        Object object = this.get(pointer);
+        if (object.equals(Boolean.FALSE) ||
+                (object instanceof String &&
+                ((String)object).equalsIgnoreCase("false"))) {
+            return false;
+        } else if (object.equals(Boolean.TRUE) ||
+                (object instanceof String &&
+                ((String)object).equalsIgnoreCase("true"))) {
+            return true;
+        }
+        throw new JSONException("JSONTape[" + JSONObject.quote(pointer) +
+                "] is not a Boolean.");
+    }
+
+
+    /**
+     * Get the double a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return The numeric value.
+     * @throws JSONException If there is no such value or if the value cannot
+     *  be converted to a number.
+     */
+    public double getDouble(String pointer) throws JSONException {
+        int t = this.at(pointer);
+        long entry = this.tape[t];
+        if (type(entry) == NUMBER) {
+            int p = position(entry);
+            return Double.parseDouble(
+                this.source.substring(p, p + length(entry)));
+        }
+        Object object = this.value(t);
+        try {
+            return Double.parseDouble((String)object);
+        } catch (Exception e) {
+            throw new JSONException("JSONTape[" + JSONObject.quote(pointer) +
+                "] is not a number.");
+        }
+    }
+
+
+    /**
+     * Get the int a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return The integer value.
+     * @throws JSONException If there is no such value or if the value cannot
+     *  be converted to an integer.
+     */
+    public int getInt(String pointer) throws JSONException {
+        return (int)this.getLong(pointer);
+    }
+
+
+    /**
+     * Get the long a JSON Pointer refers to. An integer of up to 18 digits
+     * is read straight from the source.
+     * @param pointer A JSON Pointer.
+     * @return The long value.
+     * @throws JSONException If there is no such value or if the value cannot
+     *  be converted to a long.
+     */
+    public long getLong(String pointer) throws JSONException {
+        int t = this.at(pointer);
+        long entry = this.tape[t];
+        if (type(entry) == NUMBER) {
+            int p = position(entry);
+            int end = p + length(entry);
+            boolean negative = this.source.charAt(p) == '-';
+            int i = negative ? p + 1 : p;
+            if (end - i <= 18 && digits(this.source, i, end) == end - i) {
+                long value = 0;
+                for (; i < end; i += 1) {
+                    value = value * 10 + this.source.charAt(i) - '0';
+                }
+                return negative ? -value : value;
+            }
+            return ((Number)this.value(t)).longValue();
+        }
+        Object object = this.value(t);
+        try {
+            return Long.parseLong((String)object);
+        } catch (Exception e) {
+            throw new JSONException("JSONTape[" + JSONObject.quote(pointer) +
+                "] is not a number.");
+        }
+    }
+
+
+    /**
+     * Get the string a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return A string.
+     * @throws JSONException If there is no such value or if it is not a
+     *  string.
+     */
+    public String getString(String pointer) throws JSONException {
+        int t = this.at(pointer);
+        int type = type(this.tape[t]);
+        if (type == STRING || type == ESCAPED) {
+            return (String)this.value(t);
+        }
+        throw new JSONException("JSONTape[" + JSONObject.quote(pointer) +
+            "] not a string.");
+    }
+
+
+    /**
+     * Get the number of members of the object, or of elements of the array,
+     * that a JSON Pointer refers to.
+     * @param pointer A JSON Pointer.
+     * @return The number of members or elements.
+     * @throws JSONException If there is no such value or if it is not an
+     *  object or an array.
+     */
+    public int length(String pointer) throws JSONException {
+        int t = this.at(pointer);
+        long entry = this.tape[t];
+        int type = type(entry);
+        if (type != OBJECT && type != ARRAY) {
+            throw new JSONException("JSONTape[" + JSONObject.quote(pointer) +
+                "] is not an object or an array.");
+        }
+        int length = 0;
+        int end = length(entry);
+        for (int c = t + 1; c < end; c = this.next(c)) {
+            if (type == OBJECT) {
+                c += 1;
+            }
+            length += 1;
+        }
+        return length;
+    }
+
+
+    /**
+     * Get the source text of the tape.
+     * @return The JSON text the tape was made from.
+     */
+    public String toString() {
+        return this.source;
+    }
+}
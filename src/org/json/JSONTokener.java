@@ -48,6 +48,34 @@ public class JSONTokener {
     private Reader  reader;
     private boolean usePrevious;
 
+    /**
+     * The characters of the string being read by nextString.
+     */
+    private char[]  chars = new char[64];
+
+    /**
+     * The pool that short strings are shared through, or null.
+     */
+    private JSONKeyPool stringPool = defaultStringPool;
+
+    /**
+     * The context that recycles the objects and arrays that this tokener
+     * reads, or null.
+     */
+    private JSONParseContext context;
+
+    /**
+     * The pool given to new tokeners, or null.
+     */
+    private static volatile JSONKeyPool defaultStringPool;
+
+    /**
+     * The longest string that is looked up in the string pool. Longer
+     * strings are seldom repeated, and comparing them would cost more than
+     * it saves.
+     */
+    private static final int pooledLength = 32;
+
 
     /**
      * Construct a JSONTokener from a Reader.
@@ -85,6 +113,61 @@ public class JSONTokener {
     }
 
 
+    /**
+     * Start over on a new source, keeping the buffers of this tokener. A
+     * JSONParseContext uses this to read document after document with one
+     * tokener.
+     * @param reader A reader that supports mark.
+     * @param context The context that supplies the objects and arrays.
+     */
+    void reset(Reader reader, JSONParseContext context) {
+        this.reader = reader;
+        this.context = context;
+        this.eof = false;
+        this.usePrevious = false;
+        this.previous = 0;
+        this.index = 0;
+        this.character = 1;
+        this.line = 1;
+    }
+
+
+    /**
+     * Set the pool that new tokeners share short string values through, so
+     * that values repeated within and across documents, such as status
+     * words and names, are held as one String instance. The pool is bounded,
+     * so it holds the recently seen strings without tying up memory the way
+     * <code>String.intern</code> does. It must not be the key pool, which is
+     * kept for keys alone.
+     * @param pool A pool, or null to stop sharing strings.
+     */
+    public static void setDefaultStringPool(JSONKeyPool pool) {
+        defaultStringPool = pool;
+    }
+
+
+    /**
+     * Set the pool that this tokener shares short string values through,
+     * for the parse of a single document. See
+     * <code>setDefaultStringPool</code>.
+     * @param pool A pool, or null to stop sharing strings.
+     * @return this.
+     */
+    public JSONTokener setStringPool(JSONKeyPool pool) {
+        this.stringPool = pool;
+        return this;
+    }
+
+
+    /**
+     * Get the pool that this tokener shares short string values through.
+     * @return The pool, or null.
+     */
+    JSONKeyPool stringPool() {
+        return this.stringPool;
+    }
+
+
     /**
      * Back up one character. This provides a sort of lookahead capability,
      * so that you can test for a digit or letter before attempting to parse
@@ -250,7 +333,9 @@ public class JSONTokener {
      */
     public String nextString(char quote) throws JSONException {
         char c;
-        StringBuffer sb = new StringBuffer();
+        char[] chars = this.chars;
+        int length = 0;
+        int hash = 0;
         for (;;) {
             c = this.next();
             switch (c) {
@@ -262,28 +347,27 @@ public class JSONTokener {
                 c = this.next();
                 switch (c) {
                 case 'b':
-                    sb.append('\b');
+                    c = '\b';
                     break;
                 case 't':
-                    sb.append('\t');
+                    c = '\t';
                     break;
                 case 'n':
-                    sb.append('\n');
+                    c = '\n';
                     break;
                 case 'f':
-                    sb.append('\f');
+                    c = '\f';
                     break;
                 case 'r':
-                    sb.append('\r');
+                    c = '\r';
                     break;
                 case 'u':
-                    sb.append((char)Integer.parseInt(this.next(4), 16));
+                    c = (char)Integer.parseInt(this.next(4), 16);
                     break;
                 case '"':
                 case '\'':
                 case '\\':
                 case '/':
-                    sb.append(c);
                     break;
                 default:
                     throw this.syntaxError("Illegal escape.");
@@ -291,10 +375,17 @@ public class JSONTokener {
                 break;
             default:
                 if (c == quote) {
-                    return sb.toString();
+                    if (this.stringPool != null && length <= pooledLength) {
+                        return this.stringPool.intern(chars, 0, length, hash);
+                    }
+                    return new String(chars, 0, length);
                 }
-                sb.append(c);
             }
+            if (length == chars.length) {
+                chars = this.moreChars();
+            }
+            chars[length++] = c;
+            hash = 31 * hash + c;
         }
     }
 
@@ -352,7 +443,6 @@ public class JSONTokener {
      */
     public Object nextValue() throws JSONException {
         char c = this.nextClean();
-        String string;
 
         switch (c) {
             case '"':
@@ -360,10 +450,14 @@ public class JSONTokener {
                 return this.nextString(c);
             case '{':
                 this.back();
-                return new JSONObject(this);
+                return this.context != null
+                    ? this.context.object(this)
+                    : new JSONObject(this);
             case '[':
                 this.back();
-                return new JSONArray(this);
+                return this.context != null
+                    ? this.context.array(this)
+                    : new JSONArray(this);
         }
 
         /*
@@ -375,18 +469,160 @@ public class JSONTokener {
          * formatting character.
          */
 
-        StringBuffer sb = new StringBuffer();
+        char[] chars = this.chars;
+        int length = 0;
         while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
-            sb.append(c);
+            if (length == chars.length) {
+                chars = this.moreChars();
+            }
+            chars[length++] = c;
             c = this.next();
         }
         this.back();
+        while (length > 0 && chars[length - 1] == ' ') {
+            length -= 1;
+        }
+        if (length == 0) {
+            throw this.syntaxError("Missing value");
+        }
+        Object value = literal(chars, length);
+        if (value != null) {
+            return value;
+        }
+        return JSONObject.stringToValue(new String(chars, 0, length));
+    }
+
 
-        string = sb.toString().trim();
-        if ("".equals(string)) {
+    /**
+     * Decode the commonest unquoted values, true, false, null and the
+     * integers that a long holds, without making a String.
+     * @param chars The characters of the value.
+     * @param length The number of characters.
+     * @return The value, or null if <code>JSONObject.stringToValue</code>
+     *  must decide.
+     */
+    private static Object literal(char[] chars, int length) {
+        char c = chars[0];
+        if (length == 4 && c == 't' && chars[1] == 'r' && chars[2] == 'u' &&
+                chars[3] == 'e') {
+            return Boolean.TRUE;
+        }
+        if (length == 5 && c == 'f' && chars[1] == 'a' && chars[2] == 'l' &&
+                chars[3] == 's' && chars[4] == 'e') {
+            return Boolean.FALSE;
+        }
+        if (length == 4 && c == 'n' && chars[1] == 'u' && chars[2] == 'l' &&
+                chars[3] == 'l') {
+            return JSONObject.NULL;
+        }
+        int i = c == '-' ? 1 : 0;
+        if (length == i || length - i > 18) {
+            return null;
+        }
+        long n = 0;
+        for (; i < length; i += 1) {
+            c = chars[i];
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            n = n * 10 + (c - '0');
+        }
+        if (chars[0] == '-') {
+            n = -n;
+        }
+        if (n == (int)n) {
+            return Integer.valueOf((int)n);
+        }
+        return Long.valueOf(n);
+    }
+
+
+    /**
+     * Double the size of the character buffer.
+     * @return The new buffer.
+     */
+    private char[] moreChars() {
+        char[] bigger = new char[this.chars.length << 1];
+        System.arraycopy(this.chars, 0, bigger, 0, this.chars.length);
+        this.chars = bigger;
+        return bigger;
+    }
+
+
+    /**
+     * Skip the next value without building it. Strings are scanned but not
+     * decoded, and objects and arrays are passed over by counting brackets,
+     * so the contents of a skipped object or array are not checked for
+     * syntax errors.
+     * @throws JSONException If the value is missing or unterminated.
+     */
+    public void skipValue() throws JSONException {
+        char c = this.nextClean();
+        switch (c) {
+        case '"':
+        case '\'':
+            this.skipString(c);
+            return;
+        case '{':
+        case '[':
+            int depth = 1;
+            while (depth > 0) {
+                c = this.next();
+                switch (c) {
+                case 0:
+                    throw this.syntaxError("Unterminated value");
+                case '"':
+                case '\'':
+                    this.skipString(c);
+                    break;
+                case '{':
+                case '[':
+                    depth += 1;
+                    break;
+                case '}':
+                case ']':
+                    depth -= 1;
+                    break;
+                }
+            }
+            return;
+        }
+        boolean empty = true;
+        while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
+            if (c > ' ') {
+                empty = false;
+            }
+            c = this.next();
+        }
+        this.back();
+        if (empty) {
             throw this.syntaxError("Missing value");
         }
-        return JSONObject.stringToValue(string);
+    }
+
+
+    /**
+     * Skip the rest of a quoted string, up to and including the close quote.
+     * @param quote The quoting character.
+     * @throws JSONException Unterminated string.
+     */
+    private void skipString(char quote) throws JSONException {
+        for (;;) {
+            char c = this.next();
+            switch (c) {
+            case 0:
+            case '\n':
+            case '\r':
+                throw this.syntaxError("Unterminated string");
+            case '\\':
+                this.next();
+                break;
+            default:
+                if (c == quote) {
+                    return;
+                }
+            }
+        }
     }
 
 
@@ -430,7 +666,7 @@ public class JSONTokener {
      * @return  A JSONException object, suitable for throwing
      */
     public JSONException syntaxError(String message) {
-        return new JSONException(message + this.toString());
+        return JSONException.syntaxError(message + this.toString());
     }
 
 
@@ -50,11 +50,16 @@ SOFTWARE.
  * <p>
  * The first method called must be <code>array</code> or <code>object</code>.
  * There are no methods for adding commas or colons. JSONWriter adds them for
- * you. Objects and arrays can be nested up to 20 levels deep.
+ * you. Objects and arrays can be nested up to 200 levels deep.
+ * <p>
+ * The nesting is kept on a stack of chars, and the keys of the open objects
+ * in one small open addressing hash table, so that a duplicate key can be
+ * refused. The check can be turned off. A JSONWriter can be reused after
+ * <code>reset</code>, so that writing a text allocates almost nothing.
  * <p>
  * This can sometimes be easier than using a JSONObject to build a string.
  * @author JSON.org
- * @version 2011-11-24
+ * @version 2026-10-19
  */
 public class JSONWriter {
     private static final int maxdepth = 200;
@@ -76,9 +81,43 @@ public class JSONWriter {
     protected char mode;
 
     /**
-     * The object/array stack.
+     * The object/array stack. Each entry is 'a' (array) or 'k' (object).
+     */
+    private char stack[];
+
+    /**
+     * Whether duplicate keys are refused.
+     */
+    private final boolean checkKeys;
+
+    /**
+     * The keys of all of the open objects, innermost last, or null if no key
+     * has been written yet.
+     */
+    private String keys[];
+
+    /**
+     * The slot of the table that each key is in.
+     */
+    private int keySlots[];
+
+    /**
+     * The number of keys.
+     */
+    private int keyCount;
+
+    /**
+     * The index of the first key of each open object, by depth.
+     */
+    private int keyBase[];
+
+    /**
+     * An open addressing hash table with linear probing. Each slot holds
+     * an index into keys plus one, or 0 if empty. The keys of an object are
+     * the last to be added when the object ends, so they are removed by
+     * simply emptying their slots in reverse order.
      */
-    private final JSONObject stack[];
+    private int table[];
 
     /**
      * The stack top index. A value of 0 indicates that the stack is empty.
@@ -94,11 +133,38 @@ public class JSONWriter {
      * Make a fresh JSONWriter. It can be used to build one JSON text.
      */
     public JSONWriter(Writer w) {
+        this(w, true);
+    }
+
+    /**
+     * Make a fresh JSONWriter. It can be used to build one JSON text, or
+     * more if it is reset.
+     * @param w The writer that will receive the output.
+     * @param checkKeys true if a key that is used twice in an object should
+     *  be refused.
+     */
+    public JSONWriter(Writer w, boolean checkKeys) {
         this.comma = false;
         this.mode = 'i';
-        this.stack = new JSONObject[maxdepth];
+        this.stack = new char[16];
         this.top = 0;
         this.writer = w;
+        this.checkKeys = checkKeys;
+    }
+
+    /**
+     * Forget the text written so far, so that the writer can build another
+     * JSON text. The output goes to the same writer.
+     */
+    public void reset() {
+        this.comma = false;
+        this.mode = 'i';
+        this.top = 0;
+        while (this.keyCount > 0) {
+            this.keyCount -= 1;
+            this.table[this.keySlots[this.keyCount]] = 0;
+            this.keys[this.keyCount] = null;
+        }
     }
 
     /**
@@ -129,6 +195,31 @@ public class JSONWriter {
         throw new JSONException("Value out of sequence.");
     }
 
+    /**
+     * Append a quoted string value, without first making the quoted string.
+     * @param string A string value.
+     * @return this
+     * @throws JSONException If the value is out of sequence.
+     */
+    private JSONWriter appendQuoted(String string) throws JSONException {
+        if (this.mode == 'o' || this.mode == 'a') {
+            try {
+                if (this.comma && this.mode == 'a') {
+                    this.writer.write(',');
+                }
+                JSONObject.quote(string, this.writer);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            if (this.mode == 'o') {
+                this.mode = 'k';
+            }
+            this.comma = true;
+            return this;
+        }
+        throw new JSONException("Value out of sequence.");
+    }
+
     /**
      * Begin appending a new array. All values until the balancing
      * <code>endArray</code> will be appended to this array. The
@@ -140,7 +231,7 @@ public class JSONWriter {
      */
     public JSONWriter array() throws JSONException {
         if (this.mode == 'i' || this.mode == 'o' || this.mode == 'a') {
-            this.push(null);
+            this.push('a');
             this.append("[");
             this.comma = false;
             return this;
@@ -205,11 +296,13 @@ public class JSONWriter {
         }
         if (this.mode == 'k') {
             try {
-                this.stack[this.top - 1].putOnce(string, Boolean.TRUE);
+                if (this.checkKeys) {
+                    this.addKey(string);
+                }
                 if (this.comma) {
                     this.writer.write(',');
                 }
-                this.writer.write(JSONObject.quote(string));
+                JSONObject.quote(string, this.writer);
                 this.writer.write(':');
                 this.comma = false;
                 this.mode = 'o';
@@ -237,7 +330,7 @@ public class JSONWriter {
         }
         if (this.mode == 'o' || this.mode == 'a') {
             this.append("{");
-            this.push(new JSONObject());
+            this.push('k');
             this.comma = false;
             return this;
         }
@@ -255,16 +348,21 @@ public class JSONWriter {
         if (this.top <= 0) {
             throw new JSONException("Nesting error.");
         }
-        char m = this.stack[this.top - 1] == null ? 'a' : 'k';
-        if (m != c) {
+        if (this.stack[this.top - 1] != c) {
             throw new JSONException("Nesting error.");
         }
         this.top -= 1;
+        if (c == 'k' && this.checkKeys && this.keys != null) {
+            int base = this.keyBase[this.top];
+            while (this.keyCount > base) {
+                this.keyCount -= 1;
+                this.table[this.keySlots[this.keyCount]] = 0;
+                this.keys[this.keyCount] = null;
+            }
+        }
         this.mode = this.top == 0
             ? 'd'
-            : this.stack[this.top - 1] == null
-            ? 'a'
-            : 'k';
+            : this.stack[this.top - 1];
     }
 
     /**
@@ -272,15 +370,89 @@ public class JSONWriter {
      * @param c The scope to open.
      * @throws JSONException If nesting is too deep.
      */
-    private void push(JSONObject jo) throws JSONException {
+    private void push(char c) throws JSONException {
         if (this.top >= maxdepth) {
             throw new JSONException("Nesting too deep.");
         }
-        this.stack[this.top] = jo;
-        this.mode = jo == null ? 'a' : 'k';
+        if (this.top == this.stack.length) {
+            char[] stack = new char[this.top * 2];
+            System.arraycopy(this.stack, 0, stack, 0, this.top);
+            this.stack = stack;
+            if (this.keyBase != null) {
+                int[] keyBase = new int[this.top * 2];
+                System.arraycopy(this.keyBase, 0, keyBase, 0, this.top);
+                this.keyBase = keyBase;
+            }
+        }
+        this.stack[this.top] = c;
+        if (c == 'k' && this.checkKeys) {
+            if (this.keyBase == null) {
+                this.keyBase = new int[this.stack.length];
+            }
+            this.keyBase[this.top] = this.keyCount;
+        }
+        this.mode = c;
         this.top += 1;
     }
 
+    /**
+     * Add a key of the innermost object to the table.
+     * @param key The key.
+     * @throws JSONException If the object already has the key.
+     */
+    private void addKey(String key) throws JSONException {
+        if (this.keys == null) {
+            this.keys = new String[16];
+            this.keySlots = new int[16];
+            this.table = new int[32];
+        } else if (this.keyCount == this.keys.length) {
+            String[] keys = new String[this.keyCount * 2];
+            System.arraycopy(this.keys, 0, keys, 0, this.keyCount);
+            this.keys = keys;
+            this.keySlots = new int[this.keyCount * 2];
+            this.table = new int[this.keyCount * 4];
+            int mask = this.table.length - 1;
+            for (int i = 0; i < this.keyCount; i += 1) {
+                int h = this.keys[i].hashCode();
+                int slot = (h ^ (h >>> 16)) & mask;
+                while (this.table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keySlots[i] = slot;
+                this.table[slot] = i + 1;
+            }
+        }
+        int slot = this.find(key, this.keyBase[this.top - 1]);
+        if (this.table[slot] != 0) {
+            throw new JSONException("Duplicate key \"" + key + "\"");
+        }
+        this.keys[this.keyCount] = key;
+        this.keySlots[this.keyCount] = slot;
+        this.table[slot] = this.keyCount + 1;
+        this.keyCount += 1;
+    }
+
+    /**
+     * Find the slot that holds a key of the innermost object, or else the
+     * empty slot where it would go.
+     * @param key The key.
+     * @param base The index of the first key of the innermost object.
+     * @return A slot of the table.
+     */
+    private int find(String key, int base) {
+        int mask = this.table.length - 1;
+        int h = key.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        for (;;) {
+            int entry = this.table[slot];
+            if (entry == 0 || (entry > base &&
+                    key.equals(this.keys[entry - 1]))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
 
     /**
      * Append either the value <code>true</code> or the value
@@ -322,6 +494,9 @@ public class JSONWriter {
      * @throws JSONException If the value is out of sequence.
      */
     public JSONWriter value(Object object) throws JSONException {
+        if (object instanceof String) {
+            return this.appendQuoted((String)object);
+        }
         return this.append(JSONObject.valueToString(object));
     }
 }
@@ -0,0 +1,388 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A LazyScanner makes the structural pass over a JSON text for a lazily
+ * parsed JSONObject or JSONArray. It checks the syntax of the whole text and
+ * finds where each member value starts and ends, but it only decodes the
+ * keys. Each member value is stored as a RawValue, to be decoded when it is
+ * first read.
+ * <p>
+ * Lazy parsing accepts standard JSON only: strings must be in double quotes,
+ * and unquoted values must be numbers, <code>true</code>,
+ * <code>false</code> or <code>null</code>. This makes sure that a value
+ * that is written out again without being read is still valid JSON.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class LazyScanner {
+
+    private final String s;
+
+    LazyScanner(String source) {
+        this.s = source;
+    }
+
+
+    /**
+     * Make a JSONException for a syntax error at an index.
+     */
+    private JSONException syntaxError(String message, int i) {
+        return JSONException.syntaxError(message + " at " + i);
+    }
+
+
+    /**
+     * Get the character at an index, or 0 past the end.
+     */
+    private char at(int i) {
+        return i < this.s.length() ? this.s.charAt(i) : 0;
+    }
+
+
+    /**
+     * Skip whitespace.
+     * @return The index of the next character that is not whitespace.
+     */
+    private int skipWhite(int i) {
+        int len = this.s.length();
+        while (i < len && this.s.charAt(i) <= ' ') {
+            i += 1;
+        }
+        return i;
+    }
+
+
+    /**
+     * Parse a text that holds one object, with nothing after it but
+     * whitespace.
+     * @return A JSONObject whose values are RawValues.
+     * @throws JSONException If there is a syntax error.
+     */
+    JSONObject object() throws JSONException {
+        int i = this.skipWhite(0);
+        if (this.at(i) != '{') {
+            throw this.syntaxError("A JSONObject text must begin with '{'", i);
+        }
+        JSONObject jo = new JSONObject();
+        this.end(this.members(i, jo));
+        return jo;
+    }
+
+
+    /**
+     * Parse a text that holds one array, with nothing after it but
+     * whitespace.
+     * @return A JSONArray whose elements are RawValues.
+     * @throws JSONException If there is a syntax error.
+     */
+    JSONArray array() throws JSONException {
+        int i = this.skipWhite(0);
+        if (this.at(i) != '[') {
+            throw this.syntaxError("A JSONArray text must start with '['", i);
+        }
+        JSONArray ja = new JSONArray();
+        this.end(this.elements(i, ja));
+        return ja;
+    }
+
+
+    /**
+     * Check that nothing but whitespace follows the root value.
+     * @param i The index after the root value.
+     * @throws JSONException If there is more text.
+     */
+    private void end(int i) throws JSONException {
+        i = this.skipWhite(i);
+        if (i < this.s.length()) {
+            throw this.syntaxError("Unexpected text", i);
+        }
+    }
+
+
+    /**
+     * Parse the object at an index.
+     * @param i The index of the opening brace, or of whitespace before it.
+     * @return A JSONObject whose values are RawValues.
+     * @throws JSONException If there is a syntax error.
+     */
+    JSONObject object(int i) throws JSONException {
+        i = this.skipWhite(i);
+        if (this.at(i) != '{') {
+            throw this.syntaxError("A JSONObject text must begin with '{'", i);
+        }
+        JSONObject jo = new JSONObject();
+        this.members(i, jo);
+        return jo;
+    }
+
+
+    /**
+     * Parse the array at an index.
+     * @param i The index of the opening bracket, or of whitespace before it.
+     * @return A JSONArray whose elements are RawValues.
+     * @throws JSONException If there is a syntax error.
+     */
+    JSONArray array(int i) throws JSONException {
+        i = this.skipWhite(i);
+        if (this.at(i) != '[') {
+            throw this.syntaxError("A JSONArray text must start with '['", i);
+        }
+        JSONArray ja = new JSONArray();
+        this.elements(i, ja);
+        return ja;
+    }
+
+
+    /**
+     * Decode the value between two indexes.
+     */
+    Object value(int start, int end) throws JSONException {
+        switch (this.s.charAt(start)) {
+        case '{':
+            return this.object(start);
+        case '[':
+            return this.array(start);
+        case '"':
+            return this.string(start, end);
+        default:
+            return JSONObject.stringToValue(this.s.substring(start, end));
+        }
+    }
+
+
+    /**
+     * Scan the members of an object, putting them into a JSONObject if one is
+     * given.
+     * @param i The index of the opening brace.
+     * @return The index after the closing brace.
+     */
+    private int members(int i, JSONObject jo) throws JSONException {
+        i = this.skipWhite(i + 1);
+        if (this.at(i) == '}') {
+            return i + 1;
+        }
+        for (;;) {
+            if (this.at(i) != '"') {
+                throw this.syntaxError("Expected a key", i);
+            }
+            int keyEnd = this.skipString(i);
+            String key = jo != null ? this.string(i, keyEnd) : null;
+            i = this.skipWhite(keyEnd);
+            if (this.at(i) != ':') {
+                throw this.syntaxError("Expected a ':' after a key", i);
+            }
+            int start = this.skipWhite(i + 1);
+            int end = this.skipValue(start);
+            if (jo != null) {
+                jo.putOnce(key, new RawValue(this.s, start, end));
+            }
+            i = this.skipWhite(end);
+            switch (this.at(i)) {
+            case ',':
+                i = this.skipWhite(i + 1);
+                break;
+            case '}':
+                return i + 1;
+            default:
+                throw this.syntaxError("Expected a ',' or '}'", i);
+            }
+        }
+    }
+
+
+    /**
+     * Scan the elements of an array, putting them into a JSONArray if one is
+     * given.
+     * @param i The index of the opening bracket.
+     * @return The index after the closing bracket.
+     */
+    private int elements(int i, JSONArray ja) throws JSONException {
+        i = this.skipWhite(i + 1);
+        if (this.at(i) == ']') {
+            return i + 1;
+        }
+        for (;;) {
+            int end = this.skipValue(i);
+            if (ja != null) {
+                ja.put(new RawValue(this.s, i, end));
+            }
+            i = this.skipWhite(end);
+            switch (this.at(i)) {
+            case ',':
+                i = this.skipWhite(i + 1);
+                break;
+            case ']':
+                return i + 1;
+            default:
+                throw this.syntaxError("Expected a ',' or ']'", i);
+            }
+        }
+    }
+
+
+    /**
+     * Check the syntax of the value at an index.
+     * @return The index after the value.
+     */
+    private int skipValue(int i) throws JSONException {
+        char c = this.at(i);
+        switch (c) {
+        case '{':
+            return this.members(i, null);
+        case '[':
+            return this.elements(i, null);
+        case '"':
+            return this.skipString(i);
+        }
+        int start = i;
+        int len = this.s.length();
+        while (i < len) {
+            c = this.s.charAt(i);
+            if (c <= ' ' || c == ',' || c == ':' || c == ']' || c == '}') {
+                break;
+            }
+            i += 1;
+        }
+        if (i == start) {
+            throw this.syntaxError("Missing value", i);
+        }
+        if (!(JSONTape.isNumber(this.s, start, i) ||
+                this.s.startsWith("true", start) && i - start == 4 ||
+                this.s.startsWith("null", start) && i - start == 4 ||
+                this.s.startsWith("false", start) && i - start == 5)) {
+            throw this.syntaxError("Unexpected value", start);
+        }
+        return i;
+    }
+
+
+    /**
+     * Find the end of the string that starts at an index.
+     * @param i The index of the opening quote.
+     * @return The index after the closing quote.
+     */
+    private int skipString(int i) throws JSONException {
+        int len = this.s.length();
+        for (i += 1; i < len; i += 1) {
+            char c = this.s.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\') {
+                i += 1;
+                switch (this.at(i)) {
+                case 'u':
+                    for (int j = 1; j <= 4; j += 1) {
+                        if (Character.digit(this.at(i + j), 16) < 0) {
+                            throw this.syntaxError("Illegal escape.", i);
+                        }
+                    }
+                    i += 4;
+                    break;
+                case 'b':
+                case 't':
+                case 'n':
+                case 'f':
+                case 'r':
+                case '"':
+                case '\'':
+                case '\\':
+                case '/':
+                    break;
+                default:
+                    throw this.syntaxError("Illegal escape.", i);
+                }
+            } else if (c == '\n' || c == '\r') {
+                break;
+            }
+        }
+        throw this.syntaxError("Unterminated string", i);
+    }
+
+
+    /**
+     * Decode the string between two indexes.
+     * @param start The index of the opening quote.
+     * @param end The index after the closing quote.
+     */
+    String string(int start, int end) throws JSONException {
+        int i = this.s.indexOf('\\', start + 1);
+        if (i < 0 || i >= end) {
+            return this.s.substring(start + 1, end - 1);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(this.s, start + 1, i);
+        while (i < end - 1) {
+            char c = this.s.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                i += 1;
+                continue;
+            }
+            c = this.s.charAt(i + 1);
+            i += 2;
+            switch (c) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 'u':
+                if (i + 4 > end - 1) {
+                    throw this.syntaxError("Illegal escape.", i);
+                }
+                try {
+                    sb.append((char)Integer.parseInt(
+                        this.s.substring(i, i + 4), 16));
+                } catch (NumberFormatException e) {
+                    throw this.syntaxError("Illegal escape.", i);
+                }
+                i += 4;
+                break;
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                sb.append(c);
+                break;
+            default:
+                throw this.syntaxError("Illegal escape.", i);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A LazyValue is a value of a JSONObject or JSONArray that is still in its
+ * encoded form. The first <code>opt</code> or <code>get</code> of the value
+ * decodes it with <code>value</code>, and the result then replaces the
+ * LazyValue in its container. Writers may copy a LazyValue that has not
+ * been read straight to their output.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+abstract class LazyValue implements JSONString {
+
+    /**
+     * Decode the value.
+     * @return A String, Number, Boolean, NULL, JSONObject or JSONArray.
+     */
+    abstract Object value();
+}
@@ -0,0 +1,371 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A MessagePackReader decodes MessagePack from a byte array into
+ * JSONObjects, JSONArrays and their values. It reads what MessagePackWriter
+ * writes, and most MessagePack written by other encoders.
+ * <p>
+ * Maps become JSONObjects. A key that is not a string is converted to one
+ * with <code>toString</code>, and duplicate keys are an error. Arrays become
+ * JSONArrays. Integers become Integer, Long, or BigInteger for a uint64
+ * above Long.MAX_VALUE. Floats become Double, strings become String, and
+ * nil becomes JSONObject.NULL. Binary values become byte arrays, and so do
+ * extension values, with the extension type in the first byte.
+ * <p>
+ * A reader made with <code>lazy</code> true does not copy the strings that
+ * it puts into objects and arrays. Each is kept as a view of the input, and
+ * is only decoded when it is first read with <code>opt</code> or
+ * <code>get</code>. A string that is never read costs no copying at all, and
+ * MessagePackWriter writes it back out by copying its bytes. The input must
+ * not be changed while the values read from it are in use.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class MessagePackReader {
+
+    /**
+     * The shortest string that a lazy reader keeps as a view. A view of a
+     * shorter string costs about as much as the string.
+     */
+    private static final int lazyLength = 32;
+
+    /**
+     * The bytes being read.
+     */
+    private final byte[] buf;
+
+    /**
+     * The index of the next byte.
+     */
+    private int pos;
+
+    /**
+     * The index after the last byte.
+     */
+    private final int limit;
+
+    /**
+     * true if strings in containers should be left undecoded.
+     */
+    private final boolean lazy;
+
+
+    /**
+     * Make a MessagePackReader from a byte array.
+     * @param bytes The bytes.
+     */
+    public MessagePackReader(byte[] bytes) {
+        this(bytes, 0, bytes.length, false);
+    }
+
+
+    /**
+     * Make a MessagePackReader from part of a byte array.
+     * @param bytes The bytes.
+     * @param offset The index of the first byte to read.
+     * @param length The number of bytes to read.
+     * @param lazy true if strings in objects and arrays should be decoded
+     *  only when they are read.
+     */
+    public MessagePackReader(byte[] bytes, int offset, int length,
+            boolean lazy) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length ||
+                offset + length < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.buf = bytes;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.lazy = lazy;
+    }
+
+
+    /**
+     * Decode a byte array that holds exactly one MessagePack value.
+     * @param bytes The bytes.
+     * @return A JSONObject, JSONArray, String, Number, Boolean,
+     *  JSONObject.NULL or byte array.
+     * @throws JSONException If the bytes are not a single valid value.
+     */
+    public static Object read(byte[] bytes) throws JSONException {
+        MessagePackReader reader = new MessagePackReader(bytes);
+        Object value = reader.nextValue();
+        if (reader.more()) {
+            throw new JSONException("Unexpected data after MessagePack value.");
+        }
+        return value;
+    }
+
+
+    /**
+     * Determine if there is another value to read.
+     * @return true if there are more bytes.
+     */
+    public boolean more() {
+        return this.pos < this.limit;
+    }
+
+
+    /**
+     * Get the index of the next byte to read.
+     * @return The index.
+     */
+    public int position() {
+        return this.pos;
+    }
+
+
+    /**
+     * Read the next value.
+     * @return A JSONObject, JSONArray, String, Number, Boolean,
+     *  JSONObject.NULL or byte array.
+     * @throws JSONException If the input ends early or is not valid
+     *  MessagePack.
+     */
+    public Object nextValue() throws JSONException {
+        Object value = this.value(false);
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        return value;
+    }
+
+
+    /**
+     * Make sure that the next n bytes are there.
+     */
+    private void need(long n) throws JSONException {
+        if (this.limit - this.pos < n) {
+            throw new JSONException("Unexpected end of MessagePack data.");
+        }
+    }
+
+
+    /**
+     * Read n bytes, most significant first.
+     */
+    private long bigEndian(int n) throws JSONException {
+        this.need(n);
+        long v = 0;
+        for (int i = 0; i < n; i += 1) {
+            v = (v << 8) | (this.buf[this.pos++] & 0xff);
+        }
+        return v;
+    }
+
+
+    /**
+     * Read an unsigned length of n bytes.
+     */
+    private int length(int n) throws JSONException {
+        long length = this.bigEndian(n);
+        if (length > Integer.MAX_VALUE) {
+            throw new JSONException("MessagePack length too large.");
+        }
+        return (int)length;
+    }
+
+
+    /**
+     * Make an Integer or a Long.
+     */
+    private static Object number(long v) {
+        if (v == (int)v) {
+            return Integer.valueOf((int)v);
+        }
+        return Long.valueOf(v);
+    }
+
+
+    private Object finite(double d) throws JSONException {
+        if (Double.isInfinite(d) || Double.isNaN(d)) {
+            throw new JSONException("JSON does not allow non-finite numbers.");
+        }
+        return Double.valueOf(d);
+    }
+
+
+    /**
+     * Read a string of length bytes.
+     * @param slice true if a long string may be left undecoded.
+     */
+    private Object string(int length, boolean slice) throws JSONException {
+        this.need(length);
+        int start = this.pos;
+        this.pos += length;
+        if (slice && length >= lazyLength) {
+            return new StringSlice(this.buf, start, length);
+        }
+        return new String(this.buf, start, length, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Read length bytes into a new array.
+     */
+    private byte[] bytes(int length) throws JSONException {
+        this.need(length);
+        byte[] b = new byte[length];
+        System.arraycopy(this.buf, this.pos, b, 0, length);
+        this.pos += length;
+        return b;
+    }
+
+
+    /**
+     * Read one value.
+     * @param slice true if a long string may be left undecoded.
+     */
+    private Object value(boolean slice) throws JSONException {
+        this.need(1);
+        int b = this.buf[this.pos++] & 0xff;
+        if (b < 0x80) {
+            return Integer.valueOf(b);
+        }
+        if (b >= 0xe0) {
+            return Integer.valueOf((byte)b);
+        }
+        if (b < 0x90) {
+            return this.object(b & 0x0f);
+        }
+        if (b < 0xa0) {
+            return this.array(b & 0x0f);
+        }
+        if (b < 0xc0) {
+            return this.string(b & 0x1f, slice && this.lazy);
+        }
+        long v;
+        switch (b) {
+        case 0xc0:
+            return JSONObject.NULL;
+        case 0xc2:
+            return Boolean.FALSE;
+        case 0xc3:
+            return Boolean.TRUE;
+        case 0xc4:
+            return this.bytes(this.length(1));
+        case 0xc5:
+            return this.bytes(this.length(2));
+        case 0xc6:
+            return this.bytes(this.length(4));
+        case 0xc7:
+            return this.bytes(this.length(1) + 1);
+        case 0xc8:
+            return this.bytes(this.length(2) + 1);
+        case 0xc9:
+            v = this.length(4);
+            if (v == Integer.MAX_VALUE) {
+                throw new JSONException("MessagePack length too large.");
+            }
+            return this.bytes((int)v + 1);
+        case 0xca:
+            return this.finite(Float.intBitsToFloat((int)this.bigEndian(4)));
+        case 0xcb:
+            return this.finite(Double.longBitsToDouble(this.bigEndian(8)));
+        case 0xcc:
+            return number(this.bigEndian(1));
+        case 0xcd:
+            return number(this.bigEndian(2));
+        case 0xce:
+            return number(this.bigEndian(4));
+        case 0xcf:
+            v = this.bigEndian(8);
+            if (v < 0) {
+                return new BigInteger(Long.toUnsignedString(v));
+            }
+            return number(v);
+        case 0xd0:
+            return number((byte)this.bigEndian(1));
+        case 0xd1:
+            return number((short)this.bigEndian(2));
+        case 0xd2:
+            return number((int)this.bigEndian(4));
+        case 0xd3:
+            return number(this.bigEndian(8));
+        case 0xd4:
+            return this.bytes(2);
+        case 0xd5:
+            return this.bytes(3);
+        case 0xd6:
+            return this.bytes(5);
+        case 0xd7:
+            return this.bytes(9);
+        case 0xd8:
+            return this.bytes(17);
+        case 0xd9:
+            return this.string(this.length(1), slice && this.lazy);
+        case 0xda:
+            return this.string(this.length(2), slice && this.lazy);
+        case 0xdb:
+            return this.string(this.length(4), slice && this.lazy);
+        case 0xdc:
+            return this.array(this.length(2));
+        case 0xdd:
+            return this.array(this.length(4));
+        case 0xde:
+            return this.object(this.length(2));
+        case 0xdf:
+            return this.object(this.length(4));
+        default:
+            throw new JSONException("Invalid MessagePack type 0x" +
+                Integer.toHexString(b) + ".");
+        }
+    }
+
+
+    /**
+     * Read the elements of an array.
+     */
+    private JSONArray array(int length) throws JSONException {
+        this.need(length);
+        JSONArray ja = new JSONArray();
+        for (int i = 0; i < length; i += 1) {
+            ja.put(this.value(true));
+        }
+        return ja;
+    }
+
+
+    /**
+     * Read the pairs of a map.
+     */
+    private JSONObject object(int length) throws JSONException {
+        this.need(length * 2L);
+        JSONObject jo = new JSONObject();
+        for (int i = 0; i < length; i += 1) {
+            Object key = this.value(false);
+            if (key instanceof byte[]) {
+                throw new JSONException("Invalid MessagePack map key.");
+            }
+            jo.putOnce(key.toString(), this.value(true));
+        }
+        return jo;
+    }
+}
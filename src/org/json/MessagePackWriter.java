@@ -0,0 +1,407 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A MessagePackWriter encodes JSONObjects, JSONArrays and their values in
+ * the MessagePack binary format. Objects become maps with string keys and
+ * arrays become arrays. Integers take the fewest bytes that hold them. A
+ * Double is written in 4 bytes when a float holds it exactly, and in 8
+ * otherwise. MessagePack has no type for numbers larger than 64 bits, so a
+ * BigInteger outside that range, and any BigDecimal, is written as a string
+ * holding its digits. As in JSON text, numbers must be finite.
+ * <p>
+ * A sequence of values may be written to one stream, and read back one at a
+ * time with <code>MessagePackReader.nextValue</code>.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+public class MessagePackWriter {
+
+    /**
+     * The size of the buffer.
+     */
+    private static final int bufferSize = 8192;
+
+    /**
+     * The buffer that receives the bytes.
+     */
+    private byte[] buf;
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int count;
+
+    /**
+     * The stream that the buffer is flushed to when it fills, or null if the
+     * buffer should grow instead.
+     */
+    private final OutputStream out;
+
+
+    /**
+     * Make a MessagePackWriter that collects its output in a byte array.
+     */
+    public MessagePackWriter() {
+        this.buf = new byte[bufferSize];
+        this.out = null;
+    }
+
+
+    /**
+     * Make a MessagePackWriter that writes through to a stream. Call
+     * <code>flush</code> when done.
+     * @param out The stream.
+     */
+    public MessagePackWriter(OutputStream out) {
+        this.buf = new byte[bufferSize];
+        this.out = out;
+    }
+
+
+    /**
+     * Encode a value as MessagePack.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return The bytes.
+     * @throws JSONException If the value is or contains an invalid number.
+     */
+    public static byte[] toByteArray(Object value) throws JSONException {
+        return new MessagePackWriter().value(value).toByteArray();
+    }
+
+
+    /**
+     * Write a value as MessagePack to a stream.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @param out The stream. It is not flushed or closed.
+     * @throws JSONException If the value is or contains an invalid number,
+     *  or if the stream fails.
+     */
+    public static void write(Object value, OutputStream out)
+            throws JSONException {
+        new MessagePackWriter(out).value(value).flush();
+    }
+
+
+    /**
+     * Get the number of bytes written and not yet flushed.
+     * @return The byte count.
+     */
+    public int size() {
+        return this.count;
+    }
+
+
+    /**
+     * Discard the bytes written so far, so that the writer can be reused.
+     */
+    public void reset() {
+        this.count = 0;
+    }
+
+
+    /**
+     * Get a copy of the bytes written so far.
+     * @return A byte array.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[this.count];
+        System.arraycopy(this.buf, 0, bytes, 0, this.count);
+        return bytes;
+    }
+
+
+    /**
+     * Write the buffered bytes to the stream, if there is one.
+     * @throws JSONException If the stream fails.
+     */
+    public void flush() throws JSONException {
+        if (this.out != null) {
+            try {
+                this.out.write(this.buf, 0, this.count);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            this.count = 0;
+        }
+    }
+
+
+    /**
+     * Make room for n more bytes, flushing or growing the buffer.
+     */
+    private void ensure(int n) throws JSONException {
+        if (this.count + n <= this.buf.length) {
+            return;
+        }
+        if (this.out != null) {
+            this.flush();
+            if (n <= this.buf.length) {
+                return;
+            }
+        }
+        int length = Math.max(this.buf.length << 1, this.count + n);
+        byte[] b = new byte[length];
+        System.arraycopy(this.buf, 0, b, 0, this.count);
+        this.buf = b;
+    }
+
+
+    /**
+     * Write a type byte followed by the last n bytes of a long, most
+     * significant first.
+     */
+    private void fixed(int type, long v, int n) throws JSONException {
+        this.ensure(n + 1);
+        this.buf[this.count++] = (byte)type;
+        for (int shift = (n - 1) * 8; shift >= 0; shift -= 8) {
+            this.buf[this.count++] = (byte)(v >>> shift);
+        }
+    }
+
+
+    /**
+     * Write the header of a string, array or map.
+     * @param fix The type byte of the fix form.
+     * @param fixLimit The length that is too long for the fix form.
+     * @param type The type byte of the 16 bit form. The 32 bit form follows
+     *  it.
+     */
+    private void header(int fix, int fixLimit, int type, int length)
+            throws JSONException {
+        if (length < fixLimit) {
+            this.fixed(fix | length, 0, 0);
+        } else if (length < 0x10000) {
+            this.fixed(type, length, 2);
+        } else {
+            this.fixed(type + 1, length, 4);
+        }
+    }
+
+
+    /**
+     * Write a boolean.
+     * @param b A boolean.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public MessagePackWriter value(boolean b) throws JSONException {
+        this.fixed(b ? 0xc3 : 0xc2, 0, 0);
+        return this;
+    }
+
+
+    /**
+     * Write an integer.
+     * @param v A long.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public MessagePackWriter value(long v) throws JSONException {
+        if (v >= 0) {
+            if (v < 0x80) {
+                this.fixed((int)v, 0, 0);
+            } else if (v < 0x100) {
+                this.fixed(0xcc, v, 1);
+            } else if (v < 0x10000) {
+                this.fixed(0xcd, v, 2);
+            } else if (v < 0x100000000L) {
+                this.fixed(0xce, v, 4);
+            } else {
+                this.fixed(0xcf, v, 8);
+            }
+        } else {
+            if (v >= -32) {
+                this.fixed((int)v & 0xff, 0, 0);
+            } else if (v >= Byte.MIN_VALUE) {
+                this.fixed(0xd0, v, 1);
+            } else if (v >= Short.MIN_VALUE) {
+                this.fixed(0xd1, v, 2);
+            } else if (v >= Integer.MIN_VALUE) {
+                this.fixed(0xd2, v, 4);
+            } else {
+                this.fixed(0xd3, v, 8);
+            }
+        }
+        return this;
+    }
+
+
+    /**
+     * Write a double, in 4 bytes if a float holds it exactly.
+     * @param d A double.
+     * @return this.
+     * @throws JSONException If the number is not finite, or if the stream
+     *  fails.
+     */
+    public MessagePackWriter value(double d) throws JSONException {
+        if (Double.isInfinite(d) || Double.isNaN(d)) {
+            throw new JSONException("JSON does not allow non-finite numbers.");
+        }
+        float f = (float)d;
+        if (f == d) {
+            this.fixed(0xca, Float.floatToIntBits(f), 4);
+        } else {
+            this.fixed(0xcb, Double.doubleToLongBits(d), 8);
+        }
+        return this;
+    }
+
+
+    /**
+     * Write a string in UTF-8.
+     * @param s A string.
+     * @return this.
+     * @throws JSONException If the stream fails.
+     */
+    public MessagePackWriter value(String s) throws JSONException {
+        int length = JSONByteWriter.utf8Length(s);
+        this.header(0xa0, 32, 0xda, length);
+        this.ensure(length);
+        if (length == s.length()) {
+            for (int i = 0; i < length; i += 1) {
+                this.buf[this.count + i] = (byte)s.charAt(i);
+            }
+            this.count += length;
+        } else {
+            this.count = JSONByteWriter.encodeUTF8(s, this.buf, this.count);
+        }
+        return this;
+    }
+
+
+    /**
+     * Write a value.
+     * @param value A JSONObject, JSONArray, or any value accepted by
+     *  <code>JSONObject.valueToString</code>.
+     * @return this.
+     * @throws JSONException If the value is or contains an invalid number,
+     *  or if the stream fails.
+     */
+    public MessagePackWriter value(Object value) throws JSONException {
+        if (value instanceof StringSlice) {
+            StringSlice slice = (StringSlice)value;
+            this.header(0xa0, 32, 0xda, slice.length);
+            this.ensure(slice.length);
+            System.arraycopy(slice.bytes, slice.offset, this.buf, this.count,
+                slice.length);
+            this.count += slice.length;
+            return this;
+        }
+        if (value instanceof LazyValue) {
+            value = ((LazyValue)value).value();
+        }
+        if (value == null || value.equals(null)) {
+            this.fixed(0xc0, 0, 0);
+        } else if (value instanceof String) {
+            this.value((String)value);
+        } else if (value instanceof JSONObject) {
+            this.object((JSONObject)value);
+        } else if (value instanceof JSONArray) {
+            this.array((JSONArray)value);
+        } else if (value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte) {
+            this.value(((Number)value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            this.value(((Number)value).doubleValue());
+        } else if (value instanceof BigInteger) {
+            BigInteger v = (BigInteger)value;
+            if (v.bitLength() < 64) {
+                this.value(v.longValue());
+            } else if (v.signum() > 0 && v.bitLength() == 64) {
+                this.fixed(0xcf, v.longValue(), 8);
+            } else {
+                this.value(v.toString());
+            }
+        } else if (value instanceof Number) {
+            this.value(JSONObject.numberToString((Number)value));
+        } else if (value instanceof Boolean) {
+            this.value(((Boolean)value).booleanValue());
+        } else if (value instanceof Map) {
+            this.object(new JSONObject((Map)value));
+        } else if (value instanceof Collection) {
+            this.array(new JSONArray((Collection)value));
+        } else if (value.getClass().isArray()) {
+            this.array(new JSONArray(value));
+        } else if (value instanceof JSONString) {
+            Object o;
+            try {
+                o = ((JSONString)value).toJSONString();
+            } catch (Exception e) {
+                throw new JSONException(e);
+            }
+            if (o != null) {
+                this.value(new JSONTokener(o.toString()).nextValue());
+            } else {
+                this.value(value.toString());
+            }
+        } else {
+            this.value(value.toString());
+        }
+        return this;
+    }
+
+
+    private void object(JSONObject jo) throws JSONException {
+        this.header(0x80, 16, 0xde, jo.length());
+        Iterator keys = jo.keys();
+        while (keys.hasNext()) {
+            String key = keys.next().toString();
+            this.value(key);
+            this.value(jo.peek(key));
+        }
+    }
+
+
+    private void array(JSONArray ja) throws JSONException {
+        ValueList list = ja.list();
+        int length = list.size();
+        int kind = list.kind();
+        this.header(0x90, 16, 0xdc, length);
+        for (int i = 0; i < length; i += 1) {
+            switch (kind) {
+            case ValueList.ints:
+            case ValueList.longs:
+                this.value(list.longValue(i));
+                break;
+            case ValueList.doubles:
+                this.value(list.doubleValue(i));
+                break;
+            default:
+                this.value(list.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A RawValue is a value of a lazily parsed JSONObject or JSONArray that has
+ * not been read yet. It remembers where the value's text lies in the source
+ * string. A value that is never read is never decoded, and is written out
+ * again exactly as it appeared in the source.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class RawValue extends LazyValue {
+
+    /**
+     * The source text.
+     */
+    final String source;
+
+    /**
+     * The index of the first character of the value.
+     */
+    final int start;
+
+    /**
+     * The index after the last character of the value.
+     */
+    final int end;
+
+
+    RawValue(String source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+
+    /**
+     * Decode the value. Objects and arrays are themselves parsed lazily.
+     * The text was checked when the container was scanned, so this cannot
+     * fail on well-formed input.
+     * @return The value.
+     */
+    Object value() {
+        try {
+            return new LazyScanner(this.source).value(this.start, this.end);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Determine if the value is an object or an array.
+     * @return true if the text begins with a brace or a bracket.
+     */
+    boolean isContainer() {
+        char c = this.source.charAt(this.start);
+        return c == '{' || c == '[';
+    }
+
+
+    /**
+     * Get the source text of the value.
+     * @return The text, exactly as it appeared in the source.
+     */
+    public String toJSONString() {
+        return this.source.substring(this.start, this.end);
+    }
+
+
+    public String toString() {
+        return this.toJSONString();
+    }
+}
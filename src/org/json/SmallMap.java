@@ -0,0 +1,370 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A SmallMap is the map used to hold the properties of a JSONObject. Most
+ * JSON objects have only a handful of keys, so the map keeps its keys and
+ * values in two parallel arrays and finds a key by scanning them. That
+ * needs no entry objects and no hash table, and keeps a small object's
+ * members next to each other in memory. Once the map grows past
+ * <code>threshold</code> keys it moves its contents into a
+ * <code>LinkedHashMap</code>. Either way the keys are kept in insertion
+ * order.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class SmallMap extends AbstractMap {
+
+    /**
+     * The largest number of keys kept in the arrays.
+     */
+    static final int threshold = 8;
+
+    private static final Object[] empty = new Object[0];
+
+    /**
+     * The keys, in insertion order. Only the first <code>size</code> are used.
+     */
+    private Object[] keys;
+
+    /**
+     * The values, parallel to the keys.
+     */
+    private Object[] values;
+
+    /**
+     * The number of keys in the arrays.
+     */
+    private int size;
+
+    /**
+     * The hash table that takes over once the threshold is passed, or null.
+     */
+    private LinkedHashMap table;
+
+    /**
+     * The number of times a key has been added to or removed from the
+     * arrays, so that an iterator can detect a change made around it.
+     */
+    private int modCount;
+
+
+    /**
+     * Construct an empty SmallMap.
+     */
+    SmallMap() {
+        this.keys = empty;
+        this.values = empty;
+    }
+
+
+    /**
+     * Find the index of a key in the arrays. Keys are usually pooled, so an
+     * identity match is tried before equals.
+     * @param key A key.
+     * @return The index, or -1 if the key is not present.
+     */
+    private int indexOf(Object key) {
+        Object[] k = this.keys;
+        for (int i = 0; i < this.size; i += 1) {
+            if (k[i] == key) {
+                return i;
+            }
+        }
+        if (key != null) {
+            for (int i = 0; i < this.size; i += 1) {
+                if (key.equals(k[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+
+    public int size() {
+        return this.table != null ? this.table.size() : this.size;
+    }
+
+
+    public boolean containsKey(Object key) {
+        return this.table != null
+            ? this.table.containsKey(key)
+            : this.indexOf(key) >= 0;
+    }
+
+
+    public Object get(Object key) {
+        if (this.table != null) {
+            return this.table.get(key);
+        }
+        int i = this.indexOf(key);
+        return i >= 0 ? this.values[i] : null;
+    }
+
+
+    public Object put(Object key, Object value) {
+        if (this.table != null) {
+            return this.table.put(key, value);
+        }
+        int i = this.indexOf(key);
+        if (i >= 0) {
+            Object old = this.values[i];
+            this.values[i] = value;
+            return old;
+        }
+        if (this.size == threshold) {
+            LinkedHashMap t = new LinkedHashMap(threshold * 4);
+            for (i = 0; i < this.size; i += 1) {
+                t.put(this.keys[i], this.values[i]);
+            }
+            t.put(key, value);
+            this.table = t;
+            this.keys = empty;
+            this.values = empty;
+            this.size = 0;
+            this.modCount += 1;
+            return null;
+        }
+        if (this.size == this.keys.length) {
+            int length = this.size == 0 ? 4 : threshold;
+            Object[] k = new Object[length];
+            Object[] v = new Object[length];
+            System.arraycopy(this.keys, 0, k, 0, this.size);
+            System.arraycopy(this.values, 0, v, 0, this.size);
+            this.keys = k;
+            this.values = v;
+        }
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.size += 1;
+        this.modCount += 1;
+        return null;
+    }
+
+
+    public Object remove(Object key) {
+        if (this.table != null) {
+            return this.table.remove(key);
+        }
+        int i = this.indexOf(key);
+        return i >= 0 ? this.removeAt(i) : null;
+    }
+
+
+    /**
+     * Remove the member at an index of the arrays, closing the hole so that
+     * insertion order is kept.
+     * @param i The index.
+     * @return The value that was removed.
+     */
+    private Object removeAt(int i) {
+        Object old = this.values[i];
+        int tail = this.size - i - 1;
+        if (tail > 0) {
+            System.arraycopy(this.keys, i + 1, this.keys, i, tail);
+            System.arraycopy(this.values, i + 1, this.values, i, tail);
+        }
+        this.size -= 1;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+        this.modCount += 1;
+        return old;
+    }
+
+
+    public void clear() {
+        this.table = null;
+        for (int i = 0; i < this.size; i += 1) {
+            this.keys[i] = null;
+            this.values[i] = null;
+        }
+        this.size = 0;
+        this.modCount += 1;
+    }
+
+
+    public Set keySet() {
+        if (this.table != null) {
+            return this.table.keySet();
+        }
+        return new AbstractSet() {
+            public Iterator iterator() {
+                return new ArrayIterator(0);
+            }
+            public int size() {
+                return SmallMap.this.size();
+            }
+            public boolean contains(Object o) {
+                return SmallMap.this.containsKey(o);
+            }
+        };
+    }
+
+
+    public Collection values() {
+        if (this.table != null) {
+            return this.table.values();
+        }
+        return new AbstractCollection() {
+            public Iterator iterator() {
+                return new ArrayIterator(1);
+            }
+            public int size() {
+                return SmallMap.this.size();
+            }
+        };
+    }
+
+
+    public Set entrySet() {
+        if (this.table != null) {
+            return this.table.entrySet();
+        }
+        return new AbstractSet() {
+            public Iterator iterator() {
+                return new ArrayIterator(2);
+            }
+            public int size() {
+                return SmallMap.this.size();
+            }
+        };
+    }
+
+
+    /**
+     * An iterator over the arrays that yields keys, values or entries. Like
+     * the iterators of HashMap, it throws ConcurrentModificationException if
+     * a key is added or removed other than through the iterator, including
+     * when the map moves into its hash table.
+     */
+    private final class ArrayIterator implements Iterator {
+        private final int kind;
+        private int next;
+        private int last = -1;
+        private int expectedModCount = SmallMap.this.modCount;
+
+        ArrayIterator(int kind) {
+            this.kind = kind;
+        }
+
+        public boolean hasNext() {
+            return this.next < SmallMap.this.size();
+        }
+
+        public Object next() {
+            if (SmallMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.next >= SmallMap.this.size) {
+                throw new NoSuchElementException();
+            }
+            final int i = this.next;
+            this.last = i;
+            this.next += 1;
+            switch (this.kind) {
+            case 0:
+                return SmallMap.this.keys[i];
+            case 1:
+                return SmallMap.this.values[i];
+            default:
+                return new ArrayEntry(i);
+            }
+        }
+
+        public void remove() {
+            if (this.last < 0) {
+                throw new IllegalStateException();
+            }
+            if (SmallMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            SmallMap.this.removeAt(this.last);
+            this.expectedModCount = SmallMap.this.modCount;
+            this.next = this.last;
+            this.last = -1;
+        }
+    }
+
+
+    /**
+     * An entry that reads and writes through to one index of the arrays.
+     */
+    private final class ArrayEntry implements Map.Entry {
+        private final int index;
+
+        ArrayEntry(int index) {
+            this.index = index;
+        }
+
+        public Object getKey() {
+            return SmallMap.this.keys[this.index];
+        }
+
+        public Object getValue() {
+            return SmallMap.this.values[this.index];
+        }
+
+        public Object setValue(Object value) {
+            Object old = SmallMap.this.values[this.index];
+            SmallMap.this.values[this.index] = value;
+            return old;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry e = (Map.Entry)o;
+            Object k = this.getKey();
+            Object v = this.getValue();
+            return (k == null ? e.getKey() == null : k.equals(e.getKey())) &&
+                (v == null ? e.getValue() == null : v.equals(e.getValue()));
+        }
+
+        public int hashCode() {
+            Object k = this.getKey();
+            Object v = this.getValue();
+            return (k == null ? 0 : k.hashCode()) ^
+                (v == null ? 0 : v.hashCode());
+        }
+
+        public String toString() {
+            return this.getKey() + "=" + this.getValue();
+        }
+    }
+}
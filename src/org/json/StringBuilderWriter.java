@@ -0,0 +1,97 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.Writer;
+
+/**
+ * A StringBuilderWriter is a Writer that collects its output in a
+ * StringBuilder. Unlike <code>java.io.StringWriter</code> it does not
+ * synchronize on every write, so it is only for use by a single thread.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class StringBuilderWriter extends Writer {
+
+    private final StringBuilder sb;
+
+    /**
+     * Construct a StringBuilderWriter with an initial capacity.
+     * @param capacity The initial capacity of the buffer.
+     */
+    StringBuilderWriter(int capacity) {
+        this.sb = new StringBuilder(capacity);
+    }
+
+    public void write(int c) {
+        this.sb.append((char)c);
+    }
+
+    public void write(char[] cbuf, int off, int len) {
+        this.sb.append(cbuf, off, len);
+    }
+
+    public void write(String str) {
+        this.sb.append(str);
+    }
+
+    public void write(String str, int off, int len) {
+        this.sb.append(str, off, off + len);
+    }
+
+    public Writer append(CharSequence csq) {
+        this.sb.append(csq);
+        return this;
+    }
+
+    public void flush() {
+    }
+
+    public void close() {
+    }
+
+    /**
+     * Discard the text written so far.
+     */
+    void reset() {
+        this.sb.setLength(0);
+    }
+
+    /**
+     * Get the size of the buffer.
+     * @return The capacity of the StringBuilder.
+     */
+    int capacity() {
+        return this.sb.capacity();
+    }
+
+    /**
+     * Get the text written so far.
+     * @return The text.
+     */
+    public String toString() {
+        return this.sb.toString();
+    }
+}
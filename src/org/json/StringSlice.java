@@ -0,0 +1,87 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A StringSlice is a string value that is still UTF-8 bytes in the buffer
+ * it was read from. MessagePackReader puts StringSlices into the
+ * JSONObjects and JSONArrays it makes, so that a string is only copied and
+ * decoded if it is read. MessagePackWriter copies the bytes of a
+ * StringSlice that has not been read without decoding them.
+ * <p>
+ * The buffer must not be changed while the values read from it are in use.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class StringSlice extends LazyValue {
+
+    /**
+     * The buffer.
+     */
+    final byte[] bytes;
+
+    /**
+     * The index of the first byte of the string.
+     */
+    final int offset;
+
+    /**
+     * The number of bytes in the string.
+     */
+    final int length;
+
+
+    StringSlice(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+
+    /**
+     * Decode the string.
+     * @return A String.
+     */
+    Object value() {
+        return new String(this.bytes, this.offset, this.length,
+            StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Get the string as JSON text.
+     * @return The string, quoted.
+     */
+    public String toJSONString() {
+        return JSONObject.quote((String)this.value());
+    }
+
+
+    public String toString() {
+        return (String)this.value();
+    }
+}
@@ -0,0 +1,211 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A StructuralScanner is stage one of a JSONTape. It finds the position of
+ * every structural character (<code>{ } [ ] : ,</code>), of the opening and
+ * closing quotes of every string, and of the start of every number and
+ * literal. A closing quote is recorded as the complement of its position if
+ * the string contains escapes.
+ * <p>
+ * Whitespace, structural characters, numbers and literals are scanned one
+ * character at a time. A string is scanned one character at a time for its
+ * first few characters only. Past that, its closing quote, backslashes and
+ * line ends are found with String.indexOf, which the JVM compiles to vector
+ * instructions that look at many characters at once.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class StructuralScanner {
+
+    private final String source;
+
+    /**
+     * The positions found.
+     */
+    int[] positions;
+
+    /**
+     * The number of positions found.
+     */
+    int count;
+
+    /**
+     * The index of the next backslash, newline and carriage return after the
+     * string last scanned with indexOf, or -1 if not yet known.
+     */
+    private int nextBackslash = -1;
+    private int nextNewline = -1;
+    private int nextReturn = -1;
+
+
+    StructuralScanner(String source) {
+        this.source = source;
+        this.positions = new int[source.length() / 4 + 16];
+    }
+
+
+    private static JSONException syntaxError(String message, int i) {
+        return JSONException.syntaxError(message + " at " + i);
+    }
+
+
+    /**
+     * Find the end of a number or literal.
+     */
+    static int tokenEnd(String s, int i) {
+        int length = s.length();
+        while (i < length) {
+            char c = s.charAt(i);
+            if (c <= ' ' || c == ',' || c == ':' || c == ']' || c == '}' ||
+                    c == '[' || c == '{' || c == '"') {
+                break;
+            }
+            i += 1;
+        }
+        return i;
+    }
+
+
+    /**
+     * Find the end of the string that starts at an index. The first few
+     * characters are looked at one at a time. After that the quotes,
+     * backslashes and line ends are found with String.indexOf, which the
+     * JVM compiles to vector instructions, and the positions of the next
+     * backslash and line ends are remembered for the strings that follow.
+     * @param i The index of the opening quote.
+     * @return The index of the closing quote, or its complement if the
+     *  string contains escapes.
+     * @throws JSONException If the string is unterminated.
+     */
+    private int stringEnd(int i) throws JSONException {
+        String s = this.source;
+        int length = s.length();
+        boolean escaped = false;
+        int j = i + 1;
+        int stop = Math.min(length, j + 32);
+        while (j < stop) {
+            char c = s.charAt(j);
+            if (c == '"') {
+                return escaped ? ~j : j;
+            }
+            if (c == '\\') {
+                escaped = true;
+                j += 2;
+            } else if (c == '\n' || c == '\r') {
+                throw syntaxError("Unterminated string", j);
+            } else {
+                j += 1;
+            }
+        }
+        for (;;) {
+            int quote = s.indexOf('"', j);
+            if (quote < 0) {
+                quote = length;
+            }
+            if (this.nextBackslash < j) {
+                this.nextBackslash = this.indexOf('\\', j);
+            }
+            if (this.nextNewline < j) {
+                this.nextNewline = this.indexOf('\n', j);
+            }
+            if (this.nextReturn < j) {
+                this.nextReturn = this.indexOf('\r', j);
+            }
+            int line = Math.min(this.nextNewline, this.nextReturn);
+            if (line < quote && line < this.nextBackslash) {
+                throw syntaxError("Unterminated string", line);
+            }
+            if (this.nextBackslash < quote) {
+                escaped = true;
+                j = this.nextBackslash + 2;
+            } else if (quote == length) {
+                throw syntaxError("Unterminated string", i);
+            } else {
+                return escaped ? ~quote : quote;
+            }
+        }
+    }
+
+
+    /**
+     * Find a character in the source.
+     * @return Its index, or the length of the source if there is none.
+     */
+    private int indexOf(char c, int from) {
+        int i = this.source.indexOf(c, from);
+        return i < 0 ? this.source.length() : i;
+    }
+
+
+    private void add(int position) {
+        if (this.count == this.positions.length) {
+            int[] grown = new int[this.count * 2];
+            System.arraycopy(this.positions, 0, grown, 0, this.count);
+            this.positions = grown;
+        }
+        this.positions[this.count] = position;
+        this.count += 1;
+    }
+
+
+    /**
+     * Scan the source.
+     * @throws JSONException If a string is unterminated.
+     */
+    void scan() throws JSONException {
+        String s = this.source;
+        int length = s.length();
+        int i = 0;
+        while (i < length) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case ':':
+            case ',':
+                this.add(i);
+                i += 1;
+                break;
+            case '"':
+                int j = this.stringEnd(i);
+                this.add(i);
+                this.add(j);
+                i = (j < 0 ? ~j : j) + 1;
+                break;
+            default:
+                if (c <= ' ') {
+                    i += 1;
+                    break;
+                }
+                this.add(i);
+                i = tokenEnd(s, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.Iterator;
+
+/**
+ * A TextCache keeps the compact UTF-8 text of a JSONObject or JSONArray
+ * that serializes itself many times without changing, and tracks whether
+ * the container or anything in it has changed since the text was made.
+ * <p>
+ * When a container makes its text, each container inside it gets a
+ * TextCache too, linked to the TextCache of the container that holds it. A
+ * <code>put</code> or <code>remove</code> anywhere below drops the text of
+ * every cached container above it. A container without a TextCache pays
+ * nothing but a null check on each change.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class TextCache {
+
+    /**
+     * Whether the container keeps its text, or only passes changes on to
+     * the containers that hold it.
+     */
+    boolean enabled;
+
+    /**
+     * The compact UTF-8 text, or null if it has not been made since the
+     * last change.
+     */
+    volatile byte[] text;
+
+    /**
+     * false once the container has changed and the containers that hold it
+     * have been told. It is set again when one of them makes its text.
+     */
+    private boolean clean;
+
+    /**
+     * The caches of the containers that hold this one.
+     */
+    private TextCache[] parents;
+
+    /**
+     * The number of parents.
+     */
+    private int parentCount;
+
+
+    /**
+     * Note that the container has changed: drop its text, and tell the
+     * containers that hold it, unless they have been told already.
+     */
+    void changed() {
+        this.text = null;
+        if (this.clean) {
+            this.clean = false;
+            for (int i = 0; i < this.parentCount; i += 1) {
+                this.parents[i].changed();
+            }
+        }
+    }
+
+
+    /**
+     * Link this cache to the cache of a container that holds it.
+     */
+    private void addParent(TextCache parent) {
+        this.clean = true;
+        for (int i = 0; i < this.parentCount; i += 1) {
+            if (this.parents[i] == parent) {
+                return;
+            }
+        }
+        if (this.parents == null) {
+            this.parents = new TextCache[2];
+        } else if (this.parentCount == this.parents.length) {
+            TextCache[] p = new TextCache[this.parentCount * 2];
+            System.arraycopy(this.parents, 0, p, 0, this.parentCount);
+            this.parents = p;
+        }
+        this.parents[this.parentCount] = parent;
+        this.parentCount += 1;
+    }
+
+
+    /**
+     * Unlink this cache from the cache of a container that no longer holds
+     * it.
+     */
+    private void removeParent(TextCache parent) {
+        for (int i = 0; i < this.parentCount; i += 1) {
+            if (this.parents[i] == parent) {
+                this.parentCount -= 1;
+                this.parents[i] = this.parents[this.parentCount];
+                this.parents[this.parentCount] = null;
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Get the text of a cached container, making it if it has changed.
+     * @param container The JSONObject or JSONArray that owns this cache.
+     * @return The compact UTF-8 text, or null if the container holds an
+     *  unpaired surrogate, which the UTF-8 text cannot keep.
+     * @throws JSONException If the container holds an invalid number.
+     */
+    byte[] text(Object container) throws JSONException {
+        byte[] text = this.text;
+        if (text == null) {
+            this.clean = true;
+            watch(this, container);
+            text = JSONByteWriter.text(container);
+            this.text = text;
+        }
+        return text;
+    }
+
+
+    /**
+     * Link the containers inside a container to its cache.
+     */
+    private static void watch(TextCache cache, Object container) {
+        if (container instanceof JSONObject) {
+            JSONObject jo = (JSONObject)container;
+            Iterator keys = jo.keys();
+            while (keys.hasNext()) {
+                watchChild(cache, jo.peek(keys.next().toString()));
+            }
+        } else {
+            ValueList list = ((JSONArray)container).list();
+            if (list.kind() == ValueList.objects) {
+                int length = list.size();
+                for (int i = 0; i < length; i += 1) {
+                    watchChild(cache, list.get(i));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Link a value to the cache of the container that holds it, if it is a
+     * container that can change.
+     * @param cache The cache of the container that holds the value.
+     * @param value The value.
+     */
+    static void watchChild(TextCache cache, Object value) {
+        TextCache child;
+        if (value instanceof FrozenJSONObject ||
+                value instanceof FrozenJSONArray) {
+            return;
+        } else if (value instanceof JSONObject) {
+            child = ((JSONObject)value).textCache();
+        } else if (value instanceof JSONArray) {
+            child = ((JSONArray)value).textCache();
+        } else {
+            return;
+        }
+        child.addParent(cache);
+        if (!child.enabled || child.text == null) {
+            watch(child, value);
+        }
+    }
+
+
+    /**
+     * Unlink a value that has been removed or replaced from the cache of the
+     * container that held it, so that the container stops hearing of its
+     * changes, unless the container still holds it somewhere else.
+     * @param cache The cache of the container that held the value.
+     * @param container The JSONObject or JSONArray that held the value.
+     * @param value The value.
+     */
+    static void unwatchChild(TextCache cache, Object container, Object value) {
+        TextCache child;
+        if (value instanceof FrozenJSONObject ||
+                value instanceof FrozenJSONArray) {
+            return;
+        } else if (value instanceof JSONObject) {
+            child = ((JSONObject)value).textCache();
+        } else if (value instanceof JSONArray) {
+            child = ((JSONArray)value).textCache();
+        } else {
+            return;
+        }
+        if (!holds(container, value)) {
+            child.removeParent(cache);
+        }
+    }
+
+
+    /**
+     * Determine whether a container holds a value itself, not a copy of it.
+     */
+    private static boolean holds(Object container, Object value) {
+        if (container instanceof JSONObject) {
+            JSONObject jo = (JSONObject)container;
+            Iterator keys = jo.keys();
+            while (keys.hasNext()) {
+                if (jo.peek(keys.next().toString()) == value) {
+                    return true;
+                }
+            }
+        } else {
+            ValueList list = ((JSONArray)container).list();
+            if (list.kind() == ValueList.objects) {
+                int length = list.size();
+                for (int i = 0; i < length; i += 1) {
+                    if (list.get(i) == value) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,349 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * A ValueList is the list used to hold the elements of a JSONArray. While
+ * every element is an <code>Integer</code>, every element is a
+ * <code>Long</code>, or every element is a <code>Double</code>, the list
+ * keeps them unboxed in an <code>int[]</code>, <code>long[]</code> or
+ * <code>double[]</code>. The kind is chosen by the first element added to an
+ * empty list. As soon as an element of any other type is added or set, the
+ * elements are boxed into an <code>Object[]</code> and stay that way until
+ * the list is emptied. Numbers are never widened to meet one another, so
+ * every element reads back as the type it was stored as: in
+ * <code>[1, 1.5]</code> the first element is still the Integer 1.
+ * <p>
+ * The <code>get</code> method boxes numeric elements on the way out. The
+ * JSONArray uses <code>intValue</code>, <code>longValue</code> and
+ * <code>doubleValue</code> to read them without boxing.
+ * @author JSON.org
+ * @version 2026-10-19
+ */
+final class ValueList extends AbstractList {
+
+    /**
+     * The kinds of storage.
+     */
+    static final int objects = 0;
+    static final int ints = 1;
+    static final int longs = 2;
+    static final int doubles = 3;
+
+    private static final Object[] empty = new Object[0];
+
+    /**
+     * The kind of storage in use.
+     */
+    private int kind;
+
+    /**
+     * The backing array, which is an Object[], int[], long[] or double[]
+     * according to the kind.
+     */
+    private Object array;
+
+    /**
+     * The number of elements in use.
+     */
+    private int size;
+
+
+    /**
+     * Construct an empty ValueList.
+     */
+    ValueList() {
+        this.kind = objects;
+        this.array = empty;
+    }
+
+
+    /**
+     * Get the kind of storage in use.
+     * @return One of objects, ints, longs or doubles.
+     */
+    int kind() {
+        return this.kind;
+    }
+
+
+    /**
+     * Determine the kind of storage that suits a value.
+     * @param value A value.
+     * @return The kind.
+     */
+    private static int kindOf(Object value) {
+        if (value instanceof Integer) {
+            return ints;
+        }
+        if (value instanceof Long) {
+            return longs;
+        }
+        if (value instanceof Double) {
+            return doubles;
+        }
+        return objects;
+    }
+
+
+    /**
+     * Replace the contents of this list with a copy of a primitive array,
+     * if it is one of the specialised kinds.
+     * @param source An array.
+     * @return true if the array was copied, false if it is not an int[],
+     *  long[] or double[].
+     */
+    boolean setPrimitives(Object source) {
+        if (source instanceof int[]) {
+            this.kind = ints;
+            this.size = ((int[])source).length;
+            this.array = ((int[])source).clone();
+        } else if (source instanceof long[]) {
+            this.kind = longs;
+            this.size = ((long[])source).length;
+            this.array = ((long[])source).clone();
+        } else if (source instanceof double[]) {
+            this.kind = doubles;
+            this.size = ((double[])source).length;
+            this.array = ((double[])source).clone();
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Get an element as an int, without boxing.
+     * @param index An index between 0 and size() - 1.
+     * @return The value.
+     */
+    int intValue(int index) {
+        switch (this.kind) {
+        case ints:
+            return ((int[])this.array)[index];
+        case longs:
+            return (int)((long[])this.array)[index];
+        case doubles:
+            return (int)((double[])this.array)[index];
+        default:
+            return ((Number)((Object[])this.array)[index]).intValue();
+        }
+    }
+
+
+    /**
+     * Get an element as a long, without boxing.
+     * @param index An index between 0 and size() - 1.
+     * @return The value.
+     */
+    long longValue(int index) {
+        switch (this.kind) {
+        case ints:
+            return ((int[])this.array)[index];
+        case longs:
+            return ((long[])this.array)[index];
+        case doubles:
+            return (long)((double[])this.array)[index];
+        default:
+            return ((Number)((Object[])this.array)[index]).longValue();
+        }
+    }
+
+
+    /**
+     * Get an element as a double, without boxing.
+     * @param index An index between 0 and size() - 1.
+     * @return The value.
+     */
+    double doubleValue(int index) {
+        switch (this.kind) {
+        case ints:
+            return ((int[])this.array)[index];
+        case longs:
+            return ((long[])this.array)[index];
+        case doubles:
+            return ((double[])this.array)[index];
+        default:
+            return ((Number)((Object[])this.array)[index]).doubleValue();
+        }
+    }
+
+
+    public int size() {
+        return this.size;
+    }
+
+
+    public Object get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        switch (this.kind) {
+        case ints:
+            return Integer.valueOf(((int[])this.array)[index]);
+        case longs:
+            return Long.valueOf(((long[])this.array)[index]);
+        case doubles:
+            return Double.valueOf(((double[])this.array)[index]);
+        default:
+            return ((Object[])this.array)[index];
+        }
+    }
+
+
+    public Object set(int index, Object value) {
+        Object old = this.get(index);
+        if (this.kind != objects && kindOf(value) != this.kind) {
+            this.box();
+        }
+        this.store(index, value);
+        return old;
+    }
+
+
+    public void add(int index, Object value) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        if (this.size == 0) {
+            int k = kindOf(value);
+            if (k != this.kind) {
+                this.kind = k;
+                this.array = newArray(k, 4);
+            }
+        } else if (this.kind != objects && kindOf(value) != this.kind) {
+            this.box();
+        }
+        int capacity = Array.getLength(this.array);
+        if (this.size == capacity) {
+            this.array = grow(this.array, this.kind,
+                    Math.max(4, capacity + (capacity >> 1)));
+        }
+        if (index < this.size) {
+            System.arraycopy(this.array, index, this.array, index + 1,
+                    this.size - index);
+        }
+        this.size += 1;
+        this.store(index, value);
+        this.modCount += 1;
+    }
+
+
+    public Object remove(int index) {
+        Object old = this.get(index);
+        int tail = this.size - index - 1;
+        if (tail > 0) {
+            System.arraycopy(this.array, index + 1, this.array, index, tail);
+        }
+        this.size -= 1;
+        if (this.kind == objects) {
+            ((Object[])this.array)[this.size] = null;
+        }
+        this.modCount += 1;
+        return old;
+    }
+
+
+    /**
+     * Remove every element. The backing array is kept for reuse, but the
+     * kind is chosen again by the next element added, so a list that was
+     * boxed does not stay boxed.
+     */
+    public void clear() {
+        if (this.kind == objects) {
+            Arrays.fill((Object[])this.array, 0, this.size, null);
+        }
+        this.size = 0;
+        this.modCount += 1;
+    }
+
+
+    /**
+     * Store a value that suits the current kind at an index.
+     */
+    private void store(int index, Object value) {
+        switch (this.kind) {
+        case ints:
+            ((int[])this.array)[index] = ((Integer)value).intValue();
+            break;
+        case longs:
+            ((long[])this.array)[index] = ((Long)value).longValue();
+            break;
+        case doubles:
+            ((double[])this.array)[index] = ((Double)value).doubleValue();
+            break;
+        default:
+            ((Object[])this.array)[index] = value;
+        }
+    }
+
+
+    /**
+     * Box the elements into an Object[], so that values of any type can be
+     * stored.
+     */
+    private void box() {
+        int capacity = Array.getLength(this.array);
+        Object[] boxed = new Object[Math.max(4, capacity)];
+        for (int i = 0; i < this.size; i += 1) {
+            boxed[i] = this.get(i);
+        }
+        this.kind = objects;
+        this.array = boxed;
+    }
+
+
+    private static Object newArray(int kind, int length) {
+        switch (kind) {
+        case ints:
+            return new int[length];
+        case longs:
+            return new long[length];
+        case doubles:
+            return new double[length];
+        default:
+            return new Object[length];
+        }
+    }
+
+
+    private static Object grow(Object array, int kind, int length) {
+        switch (kind) {
+        case ints:
+            return Arrays.copyOf((int[])array, length);
+        case longs:
+            return Arrays.copyOf((long[])array, length);
+        case doubles:
+            return Arrays.copyOf((double[])array, length);
+        default:
+            return Arrays.copyOf((Object[])array, length);
+        }
+    }
+}